@@ -0,0 +1,102 @@
+package com.bruno.studentsmanagement;
+
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import com.bruno.studentsmanagement.services.StudentBatchService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.IntStream;
+
+import static com.bruno.studentsmanagement.utils.DateConverterUtil.convertDate;
+
+/**
+ * Shared fixtures for the JMH benchmarks: generated students and an application context
+ * running against its own in-memory H2 database.
+ */
+public class BenchmarkData {
+
+    public static final int ROWS = Integer.getInteger("benchmark.rows", 10_000);
+
+    private static final String[] FIRST_NAMES = {
+            "Pedro", "Vasco", "Bartolomeu", "Fernão", "Nicolau", "Gaspar", "Diogo", "Afonso", "Duarte", "Henrique",
+            "Ana", "Beatriz", "Catarina", "Inês", "Isabel", "Leonor", "Maria", "Mariana", "Teresa", "Joana"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Cabral", "Gama", "Dias", "Magalhães", "Coelho", "Corte-Real", "Cão", "Albuquerque", "Pereira", "Silva",
+            "Santos", "Oliveira", "Souza", "Lima", "Carvalho", "Ferreira", "Rodrigues", "Almeida", "Costa", "Gomes"
+    };
+
+    private static final LocalDate BIRTH_DATE = convertDate("2000-01-01");
+
+    public static StudentDTO student(int i){
+        String name = FIRST_NAMES[i % FIRST_NAMES.length] + " "
+                + LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length] + " "
+                + LAST_NAMES[(i / (FIRST_NAMES.length * LAST_NAMES.length)) % LAST_NAMES.length];
+        return new StudentDTO(null, name, BIRTH_DATE, "student" + i + "@school.edu", "(11) 98741-3652", 0, null);
+    }
+
+    public static Iterator<StudentDTO> students(int from, int to){
+        return IntStream.range(from, to).mapToObj(BenchmarkData::student).iterator();
+    }
+
+    public static ConfigurableApplicationContext startApplication(String... properties){
+        return new SpringApplicationBuilder(StudentsmanagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.show-sql=false", "spring.h2.console.enabled=false")
+                .properties("spring.datasource.url=jdbc:h2:mem:benchmark-" + System.nanoTime())
+                .properties(properties)
+                .run();
+    }
+
+    public static ConfigurableApplicationContext startApplication(int rows, String... properties){
+        ConfigurableApplicationContext context = startApplication(properties);
+        seed(context, rows);
+        return context;
+    }
+
+    /**
+     * Properties selecting the storage a benchmark runs on: {@code memory} is the default in-memory H2,
+     * {@code file} is the prod profile (file-backed H2, Flyway, tuned pool) in a fresh temporary directory.
+     */
+    public static String[] storage(String storage){
+        if(storage.equals("memory")) return new String[0];
+        try {
+            Path dataDir = Files.createTempDirectory("students-benchmark");
+            return new String[]{"spring.profiles.active=prod", "students.data-dir=" + dataDir.toAbsolutePath()};
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static ConfigurableApplicationContext startWebApplication(
+            int rows, WebApplicationType type, String... properties
+    ){
+        String database = "benchmark-" + System.nanoTime();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(StudentsmanagementApplication.class)
+                .web(type)
+                .properties("spring.jpa.show-sql=false", "spring.h2.console.enabled=false", "server.port=0")
+                .properties("spring.datasource.url=jdbc:h2:mem:" + database)
+                .properties("spring.r2dbc.url=r2dbc:h2:mem:///" + database)
+                .properties(properties)
+                .run();
+        seed(context, rows);
+        return context;
+    }
+
+    public static int port(ConfigurableApplicationContext context){
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    private static void seed(ConfigurableApplicationContext context, int rows){
+        context.getBean(StudentBatchService.class).saveAll(students(0, rows));
+    }
+}
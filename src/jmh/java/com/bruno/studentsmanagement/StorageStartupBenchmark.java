@@ -0,0 +1,30 @@
+package com.bruno.studentsmanagement;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application startup on the in-memory database against the prod profile's file-backed storage,
+ * where the pool is filled up front and Flyway checks the schema on every start.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StorageStartupBenchmark {
+
+    @Param({"memory", "file"})
+    public String storage;
+
+    private String[] properties;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        properties = BenchmarkData.storage(storage);
+    }
+
+    @Benchmark
+    public void startup(){
+        BenchmarkData.startApplication(properties).close();
+    }
+}
@@ -0,0 +1,63 @@
+package com.bruno.studentsmanagement;
+
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import com.bruno.studentsmanagement.services.StudentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service throughput with the near-cache off, so every call reaches the storage selected by {@code storage}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class StorageThroughputBenchmark {
+
+    @Param({"memory", "file"})
+    public String storage;
+
+    private final AtomicInteger nextStudent = new AtomicInteger(BenchmarkData.ROWS);
+
+    private ConfigurableApplicationContext context;
+    private StudentService studentService;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        context = BenchmarkData.startApplication(
+                BenchmarkData.ROWS, concat(BenchmarkData.storage(storage), "students.cache.enabled=false")
+        );
+        studentService = context.getBean(StudentService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        context.close();
+    }
+
+    @Benchmark
+    public StudentDTO findById(){
+        return studentService.findById(ThreadLocalRandom.current().nextInt(BenchmarkData.ROWS) + 1L);
+    }
+
+    @Benchmark
+    public StudentDTO findByEmail(){
+        return studentService.findByEmail(BenchmarkData.student(ThreadLocalRandom.current().nextInt(BenchmarkData.ROWS)).getEmail());
+    }
+
+    @Benchmark
+    public StudentDTO save(){
+        return studentService.save(BenchmarkData.student(nextStudent.getAndIncrement()));
+    }
+
+    private static String[] concat(String[] properties, String property){
+        String[] all = Arrays.copyOf(properties, properties.length + 1);
+        all[properties.length] = property;
+        return all;
+    }
+}
@@ -0,0 +1,87 @@
+package com.bruno.studentsmanagement.dto;
+
+import com.bruno.studentsmanagement.BenchmarkData;
+import com.bruno.studentsmanagement.resources.StudentProtobufHttpMessageConverter;
+import com.bruno.studentsmanagement.utils.JsonConvertionUtil;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Encode/decode cost of a page of students in every format the API negotiates. The encoded size of the
+ * page is reported next to the timings as the {@code payloadBytes} counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StudentFormatBenchmark {
+
+    private static final TypeReference<CursorPageDTO<StudentDTO>> STUDENT_PAGE = new TypeReference<>() {};
+
+    @Param({"json", "smile", "cbor", "protobuf"})
+    public String format;
+
+    @Param({"50", "1000"})
+    public int pageSize;
+
+    private CursorPageDTO<StudentDTO> page;
+    private ObjectReader reader;
+    private ObjectWriter writer;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws Exception {
+        page = new CursorPageDTO<>(
+                IntStream.range(0, pageSize).mapToObj(BenchmarkData::student).collect(Collectors.toList()),
+                (long) pageSize
+        );
+        reader = mapper().readerFor(STUDENT_PAGE);
+        writer = mapper().writerFor(STUDENT_PAGE);
+        if(format.equals("protobuf")){
+            reader = reader.with(StudentProtobufHttpMessageConverter.STUDENT_PAGE);
+            writer = writer.with(StudentProtobufHttpMessageConverter.STUDENT_PAGE);
+        }
+        payload = writer.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] encodePage(Payload size) throws Exception {
+        byte[] encoded = writer.writeValueAsBytes(page);
+        size.payloadBytes = encoded.length;
+        return encoded;
+    }
+
+    @Benchmark
+    public CursorPageDTO<StudentDTO> decodePage(Payload size) throws Exception {
+        size.payloadBytes = payload.length;
+        return reader.readValue(payload);
+    }
+
+    /** Last encoded size, an event count so JMH reports it as is instead of as a rate. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload {
+
+        public long payloadBytes;
+
+        @Setup(Level.Iteration)
+        public void reset(){
+            payloadBytes = 0;
+        }
+    }
+
+    private ObjectMapper mapper(){
+        switch (format){
+            case "smile": return JsonConvertionUtil.smileMapper();
+            case "cbor": return JsonConvertionUtil.cborMapper();
+            case "protobuf": return JsonConvertionUtil.protobufMapper();
+            default: return JsonConvertionUtil.objectMapper();
+        }
+    }
+}
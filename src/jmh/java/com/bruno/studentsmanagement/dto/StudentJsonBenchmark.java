@@ -0,0 +1,100 @@
+package com.bruno.studentsmanagement.dto;
+
+import com.bruno.studentsmanagement.BenchmarkData;
+import com.bruno.studentsmanagement.utils.JsonConvertionUtil;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Jackson encode/decode cost of a single StudentDTO and of a page of them, through the mapper and through
+ * cached readers and writers, with and without the Blackbird module.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StudentJsonBenchmark {
+
+    private static final TypeReference<List<StudentDTO>> STUDENT_LIST = new TypeReference<>() {};
+
+    @Param({"50"})
+    public int listSize;
+
+    @Param({"false", "true"})
+    public boolean blackbird;
+
+    private ObjectMapper objectMapper;
+    private ObjectReader studentReader;
+    private ObjectWriter studentWriter;
+    private ObjectReader studentListReader;
+    private ObjectWriter studentListWriter;
+    private StudentDTO student;
+    private List<StudentDTO> students;
+    private String studentJson;
+    private String studentsJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = JsonConvertionUtil.objectMapper(blackbird);
+        studentReader = objectMapper.readerFor(StudentDTO.class);
+        studentWriter = objectMapper.writerFor(StudentDTO.class);
+        studentListReader = objectMapper.readerFor(STUDENT_LIST);
+        studentListWriter = objectMapper.writerFor(STUDENT_LIST);
+        student = BenchmarkData.student(1);
+        students = IntStream.range(0, listSize).mapToObj(BenchmarkData::student).collect(Collectors.toList());
+        studentJson = objectMapper.writeValueAsString(student);
+        studentsJson = objectMapper.writeValueAsString(students);
+    }
+
+    @Benchmark
+    public String encodeStudent() throws Exception {
+        return objectMapper.writeValueAsString(student);
+    }
+
+    @Benchmark
+    public String encodeStudentWithJsonConvertionUtil(){
+        return JsonConvertionUtil.asJsonString(student);
+    }
+
+    @Benchmark
+    public String encodeStudentWithWriter() throws Exception {
+        return studentWriter.writeValueAsString(student);
+    }
+
+    @Benchmark
+    public StudentDTO decodeStudent() throws Exception {
+        return objectMapper.readValue(studentJson, StudentDTO.class);
+    }
+
+    @Benchmark
+    public StudentDTO decodeStudentWithReader() throws Exception {
+        return studentReader.readValue(studentJson);
+    }
+
+    @Benchmark
+    public String encodeStudentList() throws Exception {
+        return objectMapper.writeValueAsString(students);
+    }
+
+    @Benchmark
+    public List<StudentDTO> decodeStudentList() throws Exception {
+        return objectMapper.readValue(studentsJson, STUDENT_LIST);
+    }
+
+    @Benchmark
+    public String encodeStudentListWithWriter() throws Exception {
+        return studentListWriter.writeValueAsString(students);
+    }
+
+    @Benchmark
+    public List<StudentDTO> decodeStudentListWithReader() throws Exception {
+        return studentListReader.readValue(studentsJson);
+    }
+}
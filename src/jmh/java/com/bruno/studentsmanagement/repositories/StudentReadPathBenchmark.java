@@ -0,0 +1,75 @@
+package com.bruno.studentsmanagement.repositories;
+
+import com.bruno.studentsmanagement.BenchmarkData;
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import com.bruno.studentsmanagement.services.StudentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Managed entities mapped to {@link StudentDTO} against constructor expression queries,
+ * which skip the persistence context; run with the gc profiler to compare allocation per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StudentReadPathBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private StudentRepository studentRepository;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        context = BenchmarkData.startApplication(BenchmarkData.ROWS);
+        studentRepository = context.getBean(StudentRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        context.close();
+    }
+
+    @Benchmark
+    public StudentDTO findByIdManaged(){
+        return new StudentDTO(studentRepository.findById(randomId()).orElseThrow());
+    }
+
+    @Benchmark
+    public StudentDTO findByIdDTO(){
+        return studentRepository.findDTOById(randomId()).orElseThrow();
+    }
+
+    @Benchmark
+    public List<StudentDTO> findPageManaged(){
+        return studentRepository.findAllById(page())
+                .stream()
+                .map(StudentDTO::new)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<StudentDTO> findPageDTO(){
+        return studentRepository.findDTOByIdIn(page());
+    }
+
+    @Benchmark
+    public List<StudentDTO> findAfterDTO(){
+        return studentRepository.findDTOByIdGreaterThan(randomId(), PageRequest.of(0, StudentService.MAX_PAGE_SIZE));
+    }
+
+    private static List<Long> page(){
+        long first = randomId();
+        return LongStream.range(first, first + StudentService.MAX_SEARCH_SIZE).boxed().collect(Collectors.toList());
+    }
+
+    private static long randomId(){
+        return ThreadLocalRandom.current().nextInt(BenchmarkData.ROWS) + 1L;
+    }
+}
@@ -0,0 +1,65 @@
+package com.bruno.studentsmanagement.resources;
+
+import com.bruno.studentsmanagement.BenchmarkData;
+import com.bruno.studentsmanagement.services.exceptions.StacklessException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP throughput of error responses under 50 concurrent clients: 404s for unregistered ids and
+ * 400s for unknown fields, with the client exceptions stackless and, as before, with stack traces.
+ * Each value of {@code stackTraces} runs in its own fork, so the property is read by a fresh JVM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(50)
+public class StudentErrorBenchmark {
+
+    @Param({"false", "true"})
+    public boolean stackTraces;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        System.setProperty(StacklessException.STACK_TRACES_PROPERTY, String.valueOf(stackTraces));
+        context = BenchmarkData.startWebApplication(
+                BenchmarkData.ROWS, WebApplicationType.SERVLET, "students.cache.enabled=false"
+        );
+        httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        baseUrl = "http://localhost:" + BenchmarkData.port(context) + "/api/v1/students";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        context.close();
+    }
+
+    @Benchmark
+    public int notFound() throws Exception {
+        long id = BenchmarkData.ROWS + ThreadLocalRandom.current().nextInt(BenchmarkData.ROWS) + 1L;
+        return get("/id/" + id);
+    }
+
+    @Benchmark
+    public int badRequest() throws Exception {
+        return get("?fields=name,grade");
+    }
+
+    private int get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,70 @@
+package com.bruno.studentsmanagement.resources;
+
+import com.bruno.studentsmanagement.BenchmarkData;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP throughput of the student API under 200 concurrent clients, with handlers running on the
+ * servlet threads, on the bounded request executor and on the reactive (WebFlux + R2DBC) profile.
+ * Rejected requests (503) are counted as completed operations, so compare them through the status
+ * counters as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(200)
+public class StudentResourceLoadBenchmark {
+
+    @Param({"servlet", "servlet-async", "reactive"})
+    public String stack;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        boolean reactive = stack.equals("reactive");
+        context = BenchmarkData.startWebApplication(
+                BenchmarkData.ROWS,
+                reactive ? WebApplicationType.REACTIVE : WebApplicationType.SERVLET,
+                "spring.profiles.active=" + (reactive ? "reactive" : "default"),
+                "students.async.enabled=" + stack.equals("servlet-async"),
+                "students.cache.enabled=false"
+        );
+        httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        baseUrl = "http://localhost:" + BenchmarkData.port(context) + "/api/v1/students";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        context.close();
+    }
+
+    @Benchmark
+    public int findById() throws Exception {
+        long id = ThreadLocalRandom.current().nextInt(BenchmarkData.ROWS) + 1L;
+        return get("/id/" + id);
+    }
+
+    @Benchmark
+    public int findAll() throws Exception {
+        long after = ThreadLocalRandom.current().nextInt(BenchmarkData.ROWS);
+        return get("?after=" + after + "&limit=50");
+    }
+
+    private int get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,52 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.BenchmarkData;
+import com.bruno.studentsmanagement.repositories.StudentRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checking that an email is free through the email index compared with the
+ * {@code exists} query it lets the writes skip, at growing table sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EmailIndexBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private EmailIndex emailIndex;
+    private StudentRepository studentRepository;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        context = BenchmarkData.startApplication(rows);
+        emailIndex = context.getBean(EmailIndex.class);
+        studentRepository = context.getBean(StudentRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        context.close();
+    }
+
+    @Benchmark
+    public boolean index(){
+        return emailIndex.mightContain(freeEmail());
+    }
+
+    @Benchmark
+    public boolean existsQuery(){
+        return studentRepository.existsByEmail(freeEmail());
+    }
+
+    private String freeEmail(){
+        return "free" + (next++ % rows) + "@school.edu";
+    }
+}
@@ -0,0 +1,55 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.BenchmarkData;
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import com.bruno.studentsmanagement.repositories.StudentRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Name search latency through the trigram index compared with the
+ * {@code lower(name) like %x%} query it replaced, at growing table sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NameSearchBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"cabral", "ana", "pe"})
+    public String text;
+
+    private ConfigurableApplicationContext context;
+    private NameSearchIndex nameSearchIndex;
+    private StudentRepository studentRepository;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        context = BenchmarkData.startApplication(rows);
+        nameSearchIndex = context.getBean(NameSearchIndex.class);
+        studentRepository = context.getBean(StudentRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        context.close();
+    }
+
+    @Benchmark
+    public List<Long> index(){
+        return nameSearchIndex.search(text, 0, StudentService.DEFAULT_SEARCH_SIZE);
+    }
+
+    @Benchmark
+    public List<StudentDTO> likeQuery(){
+        return studentRepository.findDTOByNameContainingIgnoreCase(
+                text, PageRequest.of(0, StudentService.DEFAULT_SEARCH_SIZE)
+        );
+    }
+}
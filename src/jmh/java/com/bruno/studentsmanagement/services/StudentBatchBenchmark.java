@@ -0,0 +1,53 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.BenchmarkData;
+import com.bruno.studentsmanagement.dto.BatchResultDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Throughput, in students per second, of the bulk import compared with saving the same
+ * students one at a time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StudentBatchBenchmark {
+
+    private static final int STUDENTS_PER_INVOCATION = 1000;
+
+    private final AtomicInteger nextStudent = new AtomicInteger();
+
+    private ConfigurableApplicationContext context;
+    private StudentService studentService;
+    private StudentBatchService studentBatchService;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        context = BenchmarkData.startApplication();
+        studentService = context.getBean(StudentService.class);
+        studentBatchService = context.getBean(StudentBatchService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STUDENTS_PER_INVOCATION)
+    public BatchResultDTO saveAll(){
+        int from = nextStudent.getAndAdd(STUDENTS_PER_INVOCATION);
+        return studentBatchService.saveAll(BenchmarkData.students(from, from + STUDENTS_PER_INVOCATION));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STUDENTS_PER_INVOCATION)
+    public void saveOneByOne(){
+        int from = nextStudent.getAndAdd(STUDENTS_PER_INVOCATION);
+        BenchmarkData.students(from, from + STUDENTS_PER_INVOCATION).forEachRemaining(studentService::save);
+    }
+}
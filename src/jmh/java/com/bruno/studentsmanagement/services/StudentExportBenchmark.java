@@ -0,0 +1,73 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.BenchmarkData;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Time to export the whole table at millions of rows, per format and with or without gzip.
+ * The output is counted and dropped, so only reading and encoding are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class StudentExportBenchmark {
+
+    @Param({"1000000", "3000000"})
+    public int rows;
+
+    @Param({"CSV", "NDJSON"})
+    public StudentExportService.Format format;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private ConfigurableApplicationContext context;
+    private StudentExportService studentExportService;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        context = BenchmarkData.startApplication(rows, "students.cache.enabled=false");
+        studentExportService = context.getBean(StudentExportService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        context.close();
+    }
+
+    @Benchmark
+    public long exportAll() throws IOException {
+        CountingOutputStream counter = new CountingOutputStream();
+        if(gzip){
+            GZIPOutputStream gzipStream = new GZIPOutputStream(counter, 64 * 1024);
+            studentExportService.exportAll(format, gzipStream);
+            gzipStream.finish();
+        } else {
+            studentExportService.exportAll(format, counter);
+        }
+        return counter.bytes;
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private long bytes;
+
+        @Override
+        public void write(int b){
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len){
+            bytes += len;
+        }
+    }
+}
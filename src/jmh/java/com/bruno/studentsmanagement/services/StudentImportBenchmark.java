@@ -0,0 +1,64 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.BenchmarkData;
+import com.bruno.studentsmanagement.dto.BatchResultDTO;
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to import a CSV of {@code rows} new students with validation spread over 1 to 8 workers.
+ * Every iteration imports students not registered yet, so all of them are validated and inserted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class StudentImportBenchmark {
+
+    @Param({"50000"})
+    public int rows;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private ConfigurableApplicationContext context;
+    private StudentBatchService studentBatchService;
+    private int nextStudent;
+    private byte[] csv;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        context = BenchmarkData.startApplication("students.import.parallelism=" + parallelism);
+        studentBatchService = context.getBean(StudentBatchService.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void nextCsv(){
+        StringBuilder builder = new StringBuilder("name,birthDate,email,phone\n");
+        for(int i = nextStudent; i < nextStudent + rows; i++){
+            StudentDTO student = BenchmarkData.student(i);
+            builder.append(student.getName()).append(',')
+                    .append(student.getBirthDate()).append(',')
+                    .append(student.getEmail()).append(',')
+                    .append(student.getPhone()).append('\n');
+        }
+        nextStudent += rows;
+        csv = builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        context.close();
+    }
+
+    @Benchmark
+    public BatchResultDTO importAll(){
+        return studentBatchService.saveAll(new StudentCsvReader(new ByteArrayInputStream(csv)), error -> {});
+    }
+}
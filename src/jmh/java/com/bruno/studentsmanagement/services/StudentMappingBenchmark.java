@@ -0,0 +1,34 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.BenchmarkData;
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import com.bruno.studentsmanagement.entities.Student;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StudentMappingBenchmark {
+
+    private StudentDTO studentDTO;
+    private Student student;
+
+    @Setup
+    public void setUp(){
+        studentDTO = BenchmarkData.student(1);
+        studentDTO.setId(1L);
+        student = StudentService.fromDTO(studentDTO);
+    }
+
+    @Benchmark
+    public StudentDTO toDTO(){
+        return new StudentDTO(student);
+    }
+
+    @Benchmark
+    public Student fromDTO(){
+        return StudentService.fromDTO(studentDTO);
+    }
+}
@@ -0,0 +1,50 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.BenchmarkData;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency and, with the gc profiler, allocation per call of the list and search pages
+ * loaded as managed entities ({@code fields} empty) against the sparse fieldset queries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StudentProjectionBenchmark {
+
+    @Param({"", "name", "name,email", "name,birthDate,email,phone,attendance"})
+    public String fields;
+
+    private ConfigurableApplicationContext context;
+    private StudentService studentService;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        context = BenchmarkData.startApplication(BenchmarkData.ROWS, "students.cache.enabled=false");
+        studentService = context.getBean(StudentService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        context.close();
+    }
+
+    @Benchmark
+    public Object findAll(){
+        long after = ThreadLocalRandom.current().nextInt(BenchmarkData.ROWS);
+        if(fields.isEmpty()) return studentService.findAll(after, StudentService.MAX_PAGE_SIZE);
+        return studentService.findAll(after, StudentService.MAX_PAGE_SIZE, fields);
+    }
+
+    @Benchmark
+    public Object findByName(){
+        PageRequest page = PageRequest.of(0, StudentService.MAX_SEARCH_SIZE);
+        if(fields.isEmpty()) return studentService.findByNameContainingIgnoreCase("cabral", page);
+        return studentService.findByNameContainingIgnoreCase("cabral", page, fields);
+    }
+}
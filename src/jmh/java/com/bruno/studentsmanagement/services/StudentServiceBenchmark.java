@@ -0,0 +1,120 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.BenchmarkData;
+import com.bruno.studentsmanagement.dto.CursorPageDTO;
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latency of every StudentService operation against an embedded H2 seeded with
+ * {@code -PbenchmarkRows} students, with the near-cache on and off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StudentServiceBenchmark {
+
+    @Param({"true", "false"})
+    public boolean cacheEnabled;
+
+    private final AtomicInteger nextStudent = new AtomicInteger(BenchmarkData.ROWS);
+
+    private ConfigurableApplicationContext context;
+    private StudentService studentService;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        context = BenchmarkData.startApplication(BenchmarkData.ROWS, "students.cache.enabled=" + cacheEnabled);
+        studentService = context.getBean(StudentService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        context.close();
+    }
+
+    @Benchmark
+    public StudentDTO findById(){
+        return studentService.findById(randomId());
+    }
+
+    @Benchmark
+    public StudentDTO findByEmail(){
+        return studentService.findByEmail(BenchmarkData.student(randomIndex()).getEmail());
+    }
+
+    @Benchmark
+    public CursorPageDTO<StudentDTO> findAll(){
+        return studentService.findAll(randomId(), StudentService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<StudentDTO> findByName(){
+        return studentService.findByNameContainingIgnoreCase("cabral", PageRequest.of(0, StudentService.DEFAULT_SEARCH_SIZE));
+    }
+
+    @Benchmark
+    public StudentDTO save(){
+        return studentService.save(BenchmarkData.student(nextStudent.getAndIncrement()));
+    }
+
+    @Benchmark
+    public StudentDTO updateById(){
+        int index = randomIndex();
+        StudentDTO studentDTO = BenchmarkData.student(index);
+        studentDTO.setPhone("(11) 98741-0000");
+        return studentService.updateById((long) index + 1, studentDTO);
+    }
+
+    @Benchmark
+    public StudentDTO updateByEmail(){
+        StudentDTO studentDTO = BenchmarkData.student(randomIndex());
+        studentDTO.setPhone("(11) 98741-0000");
+        return studentService.updateByEmail(studentDTO);
+    }
+
+    /**
+     * Two updates per invocation, moving the student to another email and back, so every seeded
+     * email stays registered for the other benchmarks of the trial.
+     */
+    @Benchmark
+    public StudentDTO updateEmailAndBack(){
+        int index = randomIndex();
+        String email = BenchmarkData.student(index).getEmail();
+        String movedEmail = "moved-" + email;
+        studentService.updateEmail((long) index + 1, email, movedEmail, null);
+        return studentService.updateEmail((long) index + 1, movedEmail, email, null);
+    }
+
+    @Benchmark
+    public StudentDTO increaseAttendance(){
+        return studentService.increaseAttendance(randomId());
+    }
+
+    @Benchmark
+    public void saveAndDeleteById(){
+        StudentDTO studentDTO = studentService.save(BenchmarkData.student(nextStudent.getAndIncrement()));
+        studentService.deleteById(studentDTO.getId());
+    }
+
+    @Benchmark
+    public void saveAndDeleteByEmail(){
+        StudentDTO studentDTO = studentService.save(BenchmarkData.student(nextStudent.getAndIncrement()));
+        studentService.deleteByEmail(studentDTO.getEmail());
+    }
+
+    private static int randomIndex(){
+        return ThreadLocalRandom.current().nextInt(BenchmarkData.ROWS);
+    }
+
+    private static long randomId(){
+        return randomIndex() + 1L;
+    }
+}
@@ -0,0 +1,61 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.BenchmarkData;
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of 64 threads looking up the same few students at once, as at the start of a class,
+ * with concurrent identical lookups coalesced into one query or each running its own.
+ * The cache is disabled so every lookup reaches the repository.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(64)
+public class StudentSingleFlightBenchmark {
+
+    private static final int HOT_STUDENTS = 8;
+
+    @Param({"true", "false"})
+    public boolean singleFlight;
+
+    private ConfigurableApplicationContext context;
+    private StudentService studentService;
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        context = BenchmarkData.startApplication(
+                BenchmarkData.ROWS,
+                "students.single-flight.enabled=" + singleFlight,
+                "students.cache.enabled=false"
+        );
+        studentService = context.getBean(StudentService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        context.close();
+    }
+
+    @Benchmark
+    public StudentDTO findById(){
+        return studentService.findById(ThreadLocalRandom.current().nextInt(HOT_STUDENTS) + 1L);
+    }
+
+    @Benchmark
+    public StudentDTO findByEmail(){
+        return studentService.findByEmail(BenchmarkData.student(ThreadLocalRandom.current().nextInt(HOT_STUDENTS)).getEmail());
+    }
+
+    @Benchmark
+    public List<StudentDTO> findByName(){
+        return studentService.findByNameContainingIgnoreCase("pedro", PageRequest.of(0, StudentService.DEFAULT_SEARCH_SIZE));
+    }
+}
@@ -0,0 +1,56 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.BenchmarkData;
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import com.bruno.studentsmanagement.dto.WriteStatusDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sustained create throughput of 16 writers, each create committed on its own or left to the
+ * write-behind queue. Writers retry when the queue pushes back, so once it is full the queued
+ * figure is the drain rate rather than the enqueue rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(16)
+public class StudentWriteBehindBenchmark {
+
+    @Param({"direct", "write-behind"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private StudentService studentService;
+    private StudentWriteBehind studentWriteBehind;
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        context = BenchmarkData.startApplication("students.write-behind.queue-capacity=10000");
+        studentService = context.getBean(StudentService.class);
+        studentWriteBehind = context.getBean(StudentWriteBehind.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        context.close();
+    }
+
+    @Benchmark
+    public Object save(){
+        StudentDTO studentDTO = BenchmarkData.student(next.getAndIncrement());
+        if(mode.equals("direct")) return studentService.save(studentDTO);
+        while(true){
+            try {
+                return studentWriteBehind.enqueue(WriteStatusDTO.Operation.SAVE, studentDTO);
+            } catch (RejectedExecutionException e){
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
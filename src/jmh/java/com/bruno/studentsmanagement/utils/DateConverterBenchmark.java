@@ -0,0 +1,76 @@
+package com.bruno.studentsmanagement.utils;
+
+import com.bruno.studentsmanagement.BenchmarkData;
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Birth date parsing and formatting with the java.util.Date handling it replaced (a new
+ * SimpleDateFormat and TimeZone lookup per call) against LocalDate and the shared formatter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DateConverterBenchmark {
+
+    private static final String BIRTH_DATE = "1467-01-01";
+
+    private ObjectMapper objectMapper;
+    private Date date;
+    private LocalDate localDate;
+    private StudentDTO student;
+    private String studentJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = JsonConvertionUtil.objectMapper();
+        date = parseWithSimpleDateFormat();
+        localDate = DateConverterUtil.convertDate(BIRTH_DATE);
+        student = BenchmarkData.student(1);
+        studentJson = objectMapper.writeValueAsString(student);
+    }
+
+    @Benchmark
+    public Date parseWithSimpleDateFormat() throws ParseException {
+        return simpleDateFormat().parse(BIRTH_DATE);
+    }
+
+    @Benchmark
+    public LocalDate parseWithDateTimeFormatter(){
+        return DateConverterUtil.convertDate(BIRTH_DATE);
+    }
+
+    @Benchmark
+    public String formatWithSimpleDateFormat(){
+        return simpleDateFormat().format(date);
+    }
+
+    @Benchmark
+    public String formatWithDateTimeFormatter(){
+        return DateConverterUtil.DATE_FORMATTER.format(localDate);
+    }
+
+    @Benchmark
+    public String encodeStudent() throws Exception {
+        return objectMapper.writeValueAsString(student);
+    }
+
+    @Benchmark
+    public StudentDTO decodeStudent() throws Exception {
+        return objectMapper.readValue(studentJson, StudentDTO.class);
+    }
+
+    private static SimpleDateFormat simpleDateFormat(){
+        SimpleDateFormat sdf = new SimpleDateFormat(DateConverterUtil.DATE_PATTERN);
+        sdf.setTimeZone(TimeZone.getTimeZone("GMT"));
+        return sdf;
+    }
+}
@@ -0,0 +1,56 @@
+package com.bruno.studentsmanagement.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Read/write splitting, only when {@code students.datasource.replica.jdbc-url} is set. The primary pool is built
+ * from {@code spring.datasource.*} as Spring Boot would, the replica pool from {@code students.datasource.replica.*},
+ * and JPA, JDBC and Flyway all get the routing data source in front of both.
+ */
+@Configuration
+@ConditionalOnProperty("students.datasource.replica.jdbc-url")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties){
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("students.datasource.replica")
+    public HikariDataSource replicaDataSource(){
+        return new HikariDataSource();
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Value("${students.datasource.replica.max-staleness:1s}") Duration maxStaleness
+    ){
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(primary, replica);
+        routingDataSource.setMaxStaleness(maxStaleness);
+        return routingDataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource){
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -0,0 +1,66 @@
+package com.bruno.studentsmanagement.config;
+
+import com.bruno.studentsmanagement.resources.StudentProtobufHttpMessageConverter;
+import com.bruno.studentsmanagement.utils.StudentJson;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * JSON goes through the ObjectMapper Spring Boot builds, so {@code spring.jackson.*} applies to it and the
+ * HTTP codecs and our own code share one set of serializer caches. The Smile and CBOR mappers come from
+ * the same builder.
+ */
+@Configuration
+public class JacksonConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    /**
+     * With {@code students.json.blackbird=true}, replaces reflective property access with generated lambdas.
+     * Spring Boot registers every Module bean in the mappers it builds.
+     */
+    @Bean
+    @ConditionalOnProperty("students.json.blackbird")
+    public Module blackbirdModule(){
+        return new BlackbirdModule();
+    }
+
+    @Bean
+    public StudentJson studentJson(ObjectMapper objectMapper){
+        return new StudentJson(objectMapper);
+    }
+
+    /**
+     * Binary alternatives to JSON, chosen by the Accept or Content-Type header: Smile, CBOR and Protobuf.
+     * JSON stays first, so clients that send no preference keep getting it.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters){
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter
+                || converter instanceof MappingJackson2CborHttpMessageConverter);
+        converters.add(new MappingJackson2SmileHttpMessageConverter(mapper(new SmileFactory())));
+        converters.add(new MappingJackson2CborHttpMessageConverter(mapper(new CBORFactory())));
+        converters.add(new StudentProtobufHttpMessageConverter());
+    }
+
+    private ObjectMapper mapper(JsonFactory factory){
+        return objectMapperBuilder.getObject().factory(factory).build();
+    }
+}
@@ -0,0 +1,46 @@
+package com.bruno.studentsmanagement.config;
+
+import com.bruno.studentsmanagement.metrics.QueryCountInterceptor;
+import com.bruno.studentsmanagement.metrics.QueryCountingDataSource;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Bean
+    public TimedAspect timedAspect(){
+        return new TimedAspect(meterRegistry);
+    }
+
+    /**
+     * Puts statement counting in front of the data source everything else is given, whether Spring Boot's
+     * pool or the read/write routing one.
+     */
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor(){
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName){
+                if(!"dataSource".equals(beanName) || !(bean instanceof DataSource)) return bean;
+                return new QueryCountingDataSource((DataSource) bean);
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry){
+        registry.addInterceptor(new QueryCountInterceptor(meterRegistry)).addPathPatterns("/api/**");
+    }
+}
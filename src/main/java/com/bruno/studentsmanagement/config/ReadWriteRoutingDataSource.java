@@ -0,0 +1,90 @@
+package com.bruno.studentsmanagement.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary. The route is picked when
+ * a connection is first used, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction's read-only
+ * flag is only known once it has begun. For {@code maxStaleness} after the last write, reads still go to the
+ * primary, so a replica lagging by less than that never serves data older than what was just written. A
+ * write is a read-write transaction that committed; connections used outside of a transaction go to the
+ * primary without counting as one.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    private final LongAdder primaryConnections = new LongAdder();
+    private final LongAdder replicaConnections = new LongAdder();
+    private final LongAdder staleReads = new LongAdder();
+    private volatile long maxStalenessNanos;
+    private volatile long lastWriteNanos;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica){
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setMaxStaleness(Duration.ZERO);
+    }
+
+    /**
+     * How long after a write reads keep going to the primary. Zero routes every read-only transaction to the replica.
+     */
+    public void setMaxStaleness(Duration maxStaleness){
+        this.maxStalenessNanos = maxStaleness.toNanos();
+        this.lastWriteNanos = System.nanoTime() - maxStalenessNanos;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey(){
+        if(!TransactionSynchronizationManager.isCurrentTransactionReadOnly()){
+            if(TransactionSynchronizationManager.isActualTransactionActive()
+                    && TransactionSynchronizationManager.isSynchronizationActive()){
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit(){
+                        written();
+                    }
+                });
+            }
+            primaryConnections.increment();
+            return Target.PRIMARY;
+        }
+        if(System.nanoTime() - lastWriteNanos < maxStalenessNanos){
+            staleReads.increment();
+            primaryConnections.increment();
+            return Target.PRIMARY;
+        }
+        replicaConnections.increment();
+        return Target.REPLICA;
+    }
+
+    private void written(){
+        lastWriteNanos = System.nanoTime();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry){
+        FunctionCounter.builder("students.datasource.connections", primaryConnections, LongAdder::sum)
+                .description("Connections handed out by the routing data source, by target")
+                .tag("target", "primary")
+                .register(registry);
+        FunctionCounter.builder("students.datasource.connections", replicaConnections, LongAdder::sum)
+                .description("Connections handed out by the routing data source, by target")
+                .tag("target", "replica")
+                .register(registry);
+        FunctionCounter.builder("students.datasource.stale.reads", staleReads, LongAdder::sum)
+                .description("Read-only transactions sent to the primary because the replica may not have caught up")
+                .register(registry);
+    }
+}
@@ -0,0 +1,24 @@
+package com.bruno.studentsmanagement.config;
+
+import com.bruno.studentsmanagement.resources.PreferHandlerMapping;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+/**
+ * Swaps in the handler mapping that routes on the {@code Prefer} header.
+ */
+@Configuration
+public class WebMvcConfig {
+
+    @Bean
+    public WebMvcRegistrations preferHandlerMapping(){
+        return new WebMvcRegistrations() {
+            @Override
+            public RequestMappingHandlerMapping getRequestMappingHandlerMapping(){
+                return new PreferHandlerMapping();
+            }
+        };
+    }
+}
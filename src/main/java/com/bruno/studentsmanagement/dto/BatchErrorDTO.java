@@ -0,0 +1,23 @@
+package com.bruno.studentsmanagement.dto;
+
+import com.bruno.studentsmanagement.exceptions.FieldMessage;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchErrorDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long index;
+
+    private String email;
+
+    private List<FieldMessage> errors;
+}
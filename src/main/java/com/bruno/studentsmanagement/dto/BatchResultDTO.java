@@ -0,0 +1,23 @@
+package com.bruno.studentsmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long received;
+
+    private long inserted;
+
+    private List<BatchErrorDTO> errors = new ArrayList<>();
+}
@@ -1,16 +1,20 @@
 package com.bruno.studentsmanagement.dto;
 
 import com.bruno.studentsmanagement.entities.Student;
+import com.bruno.studentsmanagement.utils.DateConverterUtil;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Past;
 import javax.validation.constraints.Size;
 import java.io.Serializable;
-import java.util.Date;
+import java.time.LocalDate;
 import java.util.Optional;
 
 @Data
@@ -26,9 +30,12 @@ public class StudentDTO implements Serializable {
     @Size(max = 50, message = "Student name may have 50 characters maximum!")
     private String name;
 
+    @NotNull(message = "Your birth date is required!")
     @Past(message = "Your birth date must be earlier than today!")
-    private Date birthDate;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = DateConverterUtil.DATE_PATTERN)
+    private LocalDate birthDate;
 
+    @NotBlank(message = "Your email address is required!")
     @Email(message = "Inform us your best email!")
     private String email;
 
@@ -38,6 +45,9 @@ public class StudentDTO implements Serializable {
 
     private Integer attendance;
 
+    @JsonIgnore
+    private Long version;
+
     public StudentDTO (Student student){
         id = student.getId();
         name = student.getName();
@@ -45,6 +55,7 @@ public class StudentDTO implements Serializable {
         email = student.getEmail();
         phone = student.getPhone();
         attendance = student.getAttendance();
+        version = student.getVersion();
     }
 
     public StudentDTO (Optional<Student> student){
@@ -54,5 +65,6 @@ public class StudentDTO implements Serializable {
         email = student.orElseThrow().getEmail();
         phone = student.orElseThrow().getPhone();
         attendance = student.orElseThrow().getAttendance();
+        version = student.orElseThrow().getVersion();
     }
 }
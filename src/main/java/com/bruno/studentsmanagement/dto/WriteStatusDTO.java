@@ -0,0 +1,29 @@
+package com.bruno.studentsmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class WriteStatusDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Operation { SAVE, UPDATE_BY_ID, UPDATE_BY_EMAIL }
+
+    public enum Status { PENDING, DONE, FAILED }
+
+    private String id;
+
+    private Operation operation;
+
+    private Status status;
+
+    private Long studentId;
+
+    private String message;
+}
@@ -3,13 +3,21 @@ package com.bruno.studentsmanagement.entities;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.io.Serializable;
-import java.util.Date;
+import java.time.LocalDate;
 
 @Entity
-@Table(name = "tb_student")
+@Table(
+        name = "tb_student",
+        indexes = @Index(name = "ix_student_name", columnList = "name"),
+        uniqueConstraints = @UniqueConstraint(name = Student.EMAIL_CONSTRAINT, columnNames = "email")
+)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Student.CACHE_REGION)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -17,6 +25,10 @@ public class Student implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    public static final String CACHE_REGION = "student";
+    public static final String QUERY_CACHE_REGION = "student-queries";
+    public static final String EMAIL_CONSTRAINT = "uk_student_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -24,10 +36,10 @@ public class Student implements Serializable {
     @Column(nullable = false, length = 50)
     private String name;
 
-    @Column(nullable = false, length = 10)
-    private Date birthDate;
+    @Column(nullable = false)
+    private LocalDate birthDate;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
 
     @Column(nullable = false, length = 15)
@@ -35,4 +47,8 @@ public class Student implements Serializable {
 
     private Integer attendance;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
 }
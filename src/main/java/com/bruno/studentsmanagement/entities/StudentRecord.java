@@ -0,0 +1,40 @@
+package com.bruno.studentsmanagement.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * R2DBC mapping of the tb_student table, used by the reactive profile.
+ */
+@Table("tb_student")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StudentRecord implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private Long id;
+
+    private String name;
+
+    private LocalDate birthDate;
+
+    private String email;
+
+    private String phone;
+
+    private Integer attendance;
+
+    @Version
+    private Long version;
+
+}
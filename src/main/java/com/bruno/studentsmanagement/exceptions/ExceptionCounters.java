@@ -0,0 +1,28 @@
+package com.bruno.studentsmanagement.exceptions;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code students.exceptions} counter of each exception type, looked up in the registry once
+ * instead of building its name and tags again on every error response.
+ */
+@Component
+public class ExceptionCounters {
+
+    private final Map<Class<?>, Counter> counters = new ConcurrentHashMap<>();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public void increment(Throwable exception){
+        counters.computeIfAbsent(exception.getClass(), type -> meterRegistry.counter(
+                "students.exceptions", "exception", type.getSimpleName()
+        )).increment();
+    }
+}
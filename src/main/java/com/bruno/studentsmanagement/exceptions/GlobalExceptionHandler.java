@@ -1,8 +1,16 @@
 package com.bruno.studentsmanagement.exceptions;
 
 import com.bruno.studentsmanagement.services.exceptions.EmailAlreadyRegisteredException;
+import com.bruno.studentsmanagement.services.exceptions.InvalidImportException;
 import com.bruno.studentsmanagement.services.exceptions.StudentInconsistencyException;
+import com.bruno.studentsmanagement.services.exceptions.StudentModifiedException;
 import com.bruno.studentsmanagement.services.exceptions.StudentNotFoundException;
+import com.bruno.studentsmanagement.services.exceptions.UnknownFieldException;
+import com.bruno.studentsmanagement.services.exceptions.UnsupportedFormatException;
+import com.bruno.studentsmanagement.services.exceptions.WriteNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -12,53 +20,79 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import javax.servlet.http.HttpServletRequest;
 import java.time.Instant;
+import java.util.concurrent.RejectedExecutionException;
 
 @ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class GlobalExceptionHandler {
 
+    private static final String OVERLOADED = "Too many requests are waiting for the database, please try again later!";
+    private static final HttpHeaders RETRY_AFTER = HttpHeaders.readOnlyHttpHeaders(retryAfter());
+
+    @Autowired
+    private ExceptionCounters exceptionCounters;
+
     @ExceptionHandler(EmailAlreadyRegisteredException.class)
     public ResponseEntity<StandardError> emailAlreadyRegistered(
             HttpServletRequest request, EmailAlreadyRegisteredException exception
     ){
-        int status = HttpStatus.BAD_REQUEST.value();
-        StandardError error = StandardError.builder()
-                .timestamp(Instant.now())
-                .status(status)
-                .error("Bad Request")
-                .message(exception.getMessage())
-                .path(request.getRequestURI())
-                .build();
-        return ResponseEntity.status(status).body(error);
+        return respond(request, HttpStatus.BAD_REQUEST, exception);
     }
 
     @ExceptionHandler(StudentInconsistencyException.class)
     public ResponseEntity<StandardError> StudentInconsistency(
             HttpServletRequest request, StudentInconsistencyException exception
     ){
-        int status = HttpStatus.BAD_REQUEST.value();
-        StandardError error = StandardError.builder()
-                .timestamp(Instant.now())
-                .status(status)
-                .error("Bad Request")
-                .message(exception.getMessage())
-                .path(request.getRequestURI())
-                .build();
-        return ResponseEntity.status(status).body(error);
+        return respond(request, HttpStatus.BAD_REQUEST, exception);
     }
 
     @ExceptionHandler(StudentNotFoundException.class)
     public ResponseEntity<StandardError> StudentNotFound(
             HttpServletRequest request, StudentNotFoundException exception
     ){
-        int status = HttpStatus.NOT_FOUND.value();
-        StandardError error = StandardError.builder()
-                .timestamp(Instant.now())
-                .status(status)
-                .error("Not Found")
-                .message(exception.getMessage())
-                .path(request.getRequestURI())
-                .build();
-        return ResponseEntity.status(status).body(error);
+        return respond(request, HttpStatus.NOT_FOUND, exception);
+    }
+
+    @ExceptionHandler(WriteNotFoundException.class)
+    public ResponseEntity<StandardError> writeNotFound(
+            HttpServletRequest request, WriteNotFoundException exception
+    ){
+        return respond(request, HttpStatus.NOT_FOUND, exception);
+    }
+
+    @ExceptionHandler(UnknownFieldException.class)
+    public ResponseEntity<StandardError> unknownField(
+            HttpServletRequest request, UnknownFieldException exception
+    ){
+        return respond(request, HttpStatus.BAD_REQUEST, exception);
+    }
+
+    @ExceptionHandler(UnsupportedFormatException.class)
+    public ResponseEntity<StandardError> unsupportedFormat(
+            HttpServletRequest request, UnsupportedFormatException exception
+    ){
+        return respond(request, HttpStatus.BAD_REQUEST, exception);
+    }
+
+    @ExceptionHandler(InvalidImportException.class)
+    public ResponseEntity<StandardError> invalidImport(
+            HttpServletRequest request, InvalidImportException exception
+    ){
+        return respond(request, HttpStatus.BAD_REQUEST, exception);
+    }
+
+    @ExceptionHandler(StudentModifiedException.class)
+    public ResponseEntity<StandardError> studentModified(
+            HttpServletRequest request, StudentModifiedException exception
+    ){
+        return respond(request, HttpStatus.PRECONDITION_FAILED, exception);
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<StandardError> overloaded(
+            HttpServletRequest request, RejectedExecutionException exception
+    ){
+        return respond(request, HttpStatus.SERVICE_UNAVAILABLE, exception, OVERLOADED, RETRY_AFTER);
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -76,4 +110,21 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(status).body(error);
     }
 
+    private ResponseEntity<StandardError> respond(HttpServletRequest request, HttpStatus status, RuntimeException exception){
+        return respond(request, status, exception, exception.getMessage(), HttpHeaders.EMPTY);
+    }
+
+    private ResponseEntity<StandardError> respond(
+            HttpServletRequest request, HttpStatus status, RuntimeException exception, String message, HttpHeaders headers
+    ){
+        exceptionCounters.increment(exception);
+        return new ResponseEntity<>(StandardError.of(status, message, request.getRequestURI()), headers, status);
+    }
+
+    private static HttpHeaders retryAfter(){
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return headers;
+    }
+
 }
@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
+import org.springframework.http.HttpStatus;
 
 import java.io.Serializable;
 import java.time.Instant;
@@ -23,4 +24,8 @@ public class StandardError implements Serializable {
     private String error;
     private String message;
     private String path;
+
+    public static StandardError of(HttpStatus status, String message, String path){
+        return new StandardError(Instant.now(), status.value(), status.getReasonPhrase(), message, path);
+    }
 }
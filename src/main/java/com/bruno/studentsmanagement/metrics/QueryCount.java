@@ -0,0 +1,70 @@
+package com.bruno.studentsmanagement.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Counts the JDBC statements executed on behalf of one request. The count is bound to a thread only
+ * while that thread works for the request and is carried to other threads by {@link #propagate(Supplier)},
+ * so pooled threads never keep one between requests.
+ */
+public final class QueryCount implements AutoCloseable {
+
+    private static final ThreadLocal<QueryCount> CURRENT = new ThreadLocal<>();
+
+    private final LongAdder statements = new LongAdder();
+
+    private QueryCount(){
+    }
+
+    /**
+     * Starts a new count and binds it to the calling thread until {@link #close()}.
+     */
+    public static QueryCount start(){
+        QueryCount queryCount = new QueryCount();
+        queryCount.bind();
+        return queryCount;
+    }
+
+    /**
+     * Counts a statement against the count bound to the calling thread, if any.
+     */
+    public static void increment(){
+        QueryCount queryCount = CURRENT.get();
+        if(queryCount != null) queryCount.statements.increment();
+    }
+
+    /**
+     * Wraps a task so that, wherever it runs, it counts against the count bound to the calling thread.
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> task){
+        QueryCount queryCount = CURRENT.get();
+        if(queryCount == null) return task;
+        return () -> {
+            QueryCount previous = CURRENT.get();
+            CURRENT.set(queryCount);
+            try {
+                return task.get();
+            } finally {
+                if(previous == null) CURRENT.remove();
+                else CURRENT.set(previous);
+            }
+        };
+    }
+
+    public void bind(){
+        CURRENT.set(this);
+    }
+
+    public long get(){
+        return statements.sum();
+    }
+
+    /**
+     * Unbinds the count from the calling thread; it keeps counting on threads it was propagated to.
+     */
+    @Override
+    public void close(){
+        if(CURRENT.get() == this) CURRENT.remove();
+    }
+}
@@ -0,0 +1,55 @@
+package com.bruno.studentsmanagement.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Records how many SQL statements each request issued, on whichever threads it ran. An asynchronous
+ * request keeps its {@link QueryCount} in a request attribute and records it once the result is dispatched.
+ */
+public class QueryCountInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String QUERY_COUNT_ATTRIBUTE = QueryCountInterceptor.class.getName() + ".queryCount";
+
+    private final MeterRegistry meterRegistry;
+
+    public QueryCountInterceptor(MeterRegistry meterRegistry){
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler){
+        QueryCount queryCount = (QueryCount) request.getAttribute(QUERY_COUNT_ATTRIBUTE);
+        if(queryCount == null){
+            request.setAttribute(QUERY_COUNT_ATTRIBUTE, QueryCount.start());
+        } else {
+            queryCount.bind();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler){
+        QueryCount queryCount = (QueryCount) request.getAttribute(QUERY_COUNT_ATTRIBUTE);
+        if(queryCount != null) queryCount.close();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex){
+        QueryCount queryCount = (QueryCount) request.getAttribute(QUERY_COUNT_ATTRIBUTE);
+        if(queryCount == null) return;
+        queryCount.close();
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("students.http.queries")
+                .description("SQL statements issued per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri == null ? "UNKNOWN" : uri.toString())
+                .register(meterRegistry)
+                .record(queryCount.get());
+    }
+}
@@ -0,0 +1,65 @@
+package com.bruno.studentsmanagement.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Counts every statement executed through its connections against the request's {@link QueryCount},
+ * whoever issues it: Hibernate, JdbcTemplate or Flyway alike. A batch counts as one statement.
+ */
+public class QueryCountingDataSource extends DelegatingDataSource {
+
+    public QueryCountingDataSource(DataSource targetDataSource){
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(super.getConnection(username, password));
+    }
+
+    private static Connection counting(Connection connection){
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if(result instanceof CallableStatement) return counting(CallableStatement.class, (CallableStatement) result);
+            if(result instanceof PreparedStatement) return counting(PreparedStatement.class, (PreparedStatement) result);
+            if(result instanceof Statement) return counting(Statement.class, (Statement) result);
+            return result;
+        });
+    }
+
+    private static <S extends Statement> S counting(Class<S> type, S statement){
+        return proxy(type, statement, (proxy, method, args) -> {
+            if(method.getName().startsWith("execute")) QueryCount.increment();
+            return invoke(statement, method, args);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler){
+        return (T) Proxy.newProxyInstance(QueryCountingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e){
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.bruno.studentsmanagement.repositories;
+
+import com.bruno.studentsmanagement.entities.StudentRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveStudentRepository extends R2dbcRepository<StudentRecord, Long> {
+
+    Mono<StudentRecord> findByEmail(String email);
+
+    @Modifying
+    @Query("delete from tb_student where email = :email")
+    Mono<Integer> deleteByEmail(String email);
+
+    Flux<StudentRecord> findByNameContainingIgnoreCase(String name, Pageable pageable);
+
+    Flux<StudentRecord> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Modifying
+    @Query("update tb_student set attendance = attendance + 1, version = version + 1 where id = :id")
+    Mono<Integer> increaseAttendance(Long id);
+
+}
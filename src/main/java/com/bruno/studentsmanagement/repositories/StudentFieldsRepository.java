@@ -0,0 +1,21 @@
+package com.bruno.studentsmanagement.repositories;
+
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Projection queries selecting only the given {@code Student} attributes, each row returned as a map
+ * from attribute name to value in the order the attributes were given.
+ */
+public interface StudentFieldsRepository {
+
+    List<Map<String, Object>> findFieldsByIdGreaterThan(Collection<String> fields, Long id, int limit);
+
+    List<Map<String, Object>> findFieldsByIdIn(Collection<String> fields, Collection<Long> ids);
+
+    List<Map<String, Object>> findFieldsByNameContainingIgnoreCase(Collection<String> fields, String name, Pageable pageable);
+
+}
@@ -0,0 +1,86 @@
+package com.bruno.studentsmanagement.repositories;
+
+import com.bruno.studentsmanagement.entities.Student;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Tuple queries, so the rows are plain values: nothing is added to the persistence context
+ * and nothing is dirty checked.
+ */
+@Transactional(readOnly = true)
+public class StudentFieldsRepositoryImpl implements StudentFieldsRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFieldsByIdGreaterThan(Collection<String> fields, Long id, int limit){
+        return select(fields, (builder, student) -> builder.greaterThan(student.<Long>get("id"), id), 0, limit);
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsByIdIn(Collection<String> fields, Collection<Long> ids){
+        if(ids.isEmpty()) return List.of();
+        return select(fields, (builder, student) -> student.get("id").in(ids), 0, ids.size());
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsByNameContainingIgnoreCase(Collection<String> fields, String name, Pageable pageable){
+        String pattern = "%" + escape(name.toLowerCase(Locale.ROOT)) + "%";
+        return select(
+                fields,
+                (builder, student) -> builder.like(builder.lower(student.<String>get("name")), pattern, '\\'),
+                (int) pageable.getOffset(),
+                pageable.getPageSize()
+        );
+    }
+
+    private List<Map<String, Object>> select(
+            Collection<String> fields,
+            BiFunction<CriteriaBuilder, Root<Student>, Predicate> where,
+            int firstResult,
+            int maxResults
+    ){
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Student> student = query.from(Student.class);
+        List<Selection<?>> selections = fields.stream()
+                .<Selection<?>>map(field -> student.get(field).alias(field))
+                .collect(Collectors.toList());
+        query.multiselect(selections)
+                .where(where.apply(builder, student))
+                .orderBy(builder.asc(student.get("id")));
+        return entityManager.createQuery(query)
+                .setFirstResult(firstResult)
+                .setMaxResults(maxResults)
+                .getResultList()
+                .stream()
+                .map(tuple -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    for (String field : fields) row.put(field, tuple.get(field));
+                    return row;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static String escape(String text){
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
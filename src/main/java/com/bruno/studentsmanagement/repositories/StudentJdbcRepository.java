@@ -0,0 +1,270 @@
+package com.bruno.studentsmanagement.repositories;
+
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import com.bruno.studentsmanagement.entities.Student;
+import io.micrometer.core.annotation.Timed;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import java.io.Serializable;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC access to {@code tb_student} for the paths where Hibernate gets in the way,
+ * e.g. IDENTITY ids preventing insert batching. Writes made here bypass Hibernate, so they evict
+ * what they changed from its second-level cache and outdate its cached queries over students, as
+ * Hibernate does for its own bulk updates.
+ */
+@Repository
+public class StudentJdbcRepository {
+
+    private static final String INSERT_STUDENT =
+            "insert into tb_student (name, birth_date, email, phone, attendance, version) values (?, ?, ?, ?, ?, 0)";
+    /** Keeps the stored attendance when none is given, and matches any version when the version given is -1. */
+    private static final String UPDATE_STUDENT = "update tb_student set version = version + 1, name = ?, birth_date = ?, "
+            + "email = ?, phone = ?, attendance = coalesce(?, attendance) where (? = -1 or version = ?) and ";
+    private static final String UPDATE_BY_ID = UPDATE_STUDENT + "id = ?";
+    private static final String UPDATE_BY_EMAIL = UPDATE_STUDENT + "email = ?";
+    private static final String SELECT_STUDENT = "select id, name, birth_date, email, phone, attendance, version from tb_student where ";
+    private static final String SELECT_BY_ID = SELECT_STUDENT + "id = ?";
+    private static final String SELECT_BY_EMAIL = SELECT_STUDENT + "email = ?";
+    private static final String UPDATE_EMAIL = "update tb_student set version = version + 1, email = ? "
+            + "where id = ? and email = ? and (? = -1 or version = ?)";
+    private static final String SELECT_IDS_BY_EMAIL = "select email, id from tb_student where email in (:emails)";
+    private static final String ADD_ATTENDANCE =
+            "update tb_student set attendance = attendance + ?, version = version + 1 where id = ?";
+    private static final String SELECT_NAMES = "select id, name from tb_student";
+    private static final String SELECT_EMAILS = "select email from tb_student";
+    private static final String SELECT_NAMES_BY_EMAIL = "select id, name from tb_student where email in (:emails)";
+    private static final String SELECT_STUDENTS =
+            "select id, name, birth_date, email, phone, attendance, version from tb_student order by id";
+    private static final int EXPORT_FETCH_SIZE = 1000;
+    private static final RowMapper<StudentDTO> STUDENT_ROW = (rs, rowNum) -> new StudentDTO(
+            rs.getLong(1),
+            rs.getString(2),
+            rs.getObject(3, LocalDate.class),
+            rs.getString(4),
+            rs.getString(5),
+            rs.getInt(6),
+            rs.getLong(7)
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    @Timed("students.jdbc")
+    @Transactional
+    public void insertAll(List<StudentDTO> students, int batchSize){
+        jdbcTemplate.batchUpdate(INSERT_STUDENT, students, batchSize, (ps, student) -> {
+            ps.setString(1, student.getName());
+            ps.setObject(2, student.getBirthDate());
+            ps.setString(3, student.getEmail());
+            ps.setString(4, student.getPhone());
+            ps.setInt(5, student.getAttendance());
+        });
+        evictAfterCommit(Collections.emptyList());
+    }
+
+    /**
+     * Updates the given students by id, or by email when {@code byEmail} is set, in batches.
+     * @return the number of rows each student's statement updated, in the order given
+     */
+    @Timed("students.jdbc")
+    @Transactional
+    public int[] updateAll(List<StudentDTO> students, boolean byEmail, int batchSize){
+        int[][] counts = jdbcTemplate.batchUpdate(byEmail ? UPDATE_BY_EMAIL : UPDATE_BY_ID, students, batchSize, (ps, student) -> {
+            ps.setString(1, student.getName());
+            ps.setObject(2, student.getBirthDate());
+            ps.setString(3, student.getEmail());
+            ps.setString(4, student.getPhone());
+            ps.setObject(5, student.getAttendance(), Types.INTEGER);
+            long version = student.getVersion() == null ? -1L : student.getVersion();
+            ps.setLong(6, version);
+            ps.setLong(7, version);
+            if(byEmail) ps.setString(8, student.getEmail());
+            else ps.setLong(8, student.getId());
+        });
+        evictAfterCommit(null);
+        return Arrays.stream(counts).flatMapToInt(Arrays::stream).toArray();
+    }
+
+    /**
+     * Updates the student by id, or by email when {@code byEmail} is set, conditionally on its version
+     * when it carries one, and returns it as stored, or nothing when no row matched. The row is read back
+     * in the same transaction, which still holds its lock, so it is the one just written.
+     */
+    @Timed("students.jdbc")
+    @Transactional
+    public Optional<StudentDTO> update(StudentDTO student, boolean byEmail){
+        long version = student.getVersion() == null ? -1L : student.getVersion();
+        Object key = byEmail ? student.getEmail() : student.getId();
+        return updated(byEmail ? UPDATE_BY_EMAIL : UPDATE_BY_ID, byEmail ? SELECT_BY_EMAIL : SELECT_BY_ID, key,
+                student.getName(),
+                student.getBirthDate(),
+                student.getEmail(),
+                student.getPhone(),
+                student.getAttendance(),
+                version,
+                version,
+                key
+        );
+    }
+
+    /**
+     * Changes the student's email from {@code email} to {@code newEmail}, conditionally on its version when
+     * one is given, and returns the student as stored, or nothing when no row matched.
+     */
+    @Timed("students.jdbc")
+    @Transactional
+    public Optional<StudentDTO> updateEmail(Long id, String email, String newEmail, Long version){
+        long expected = version == null ? -1L : version;
+        return updated(UPDATE_EMAIL, SELECT_BY_ID, id, newEmail, id, email, expected, expected);
+    }
+
+    @Timed("students.jdbc")
+    public Map<String, Long> findIdsByEmail(Collection<String> emails){
+        Map<String, Long> ids = new HashMap<>();
+        namedParameterJdbcTemplate.query(
+                SELECT_IDS_BY_EMAIL,
+                Map.of("emails", emails),
+                (RowCallbackHandler) rs -> ids.put(rs.getString(1), rs.getLong(2))
+        );
+        return ids;
+    }
+
+    @Timed("students.jdbc")
+    @Transactional
+    public void addAttendance(Map<Long, Long> deltas){
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(deltas.entrySet());
+        jdbcTemplate.batchUpdate(ADD_ATTENDANCE, entries, entries.size(), (ps, entry) -> {
+            ps.setLong(1, entry.getValue());
+            ps.setLong(2, entry.getKey());
+        });
+        evictAfterCommit(deltas.keySet());
+    }
+
+    @Timed("students.jdbc")
+    public void forEachName(BiConsumer<Long, String> consumer){
+        jdbcTemplate.query(SELECT_NAMES, (RowCallbackHandler) rs -> consumer.accept(rs.getLong(1), rs.getString(2)));
+    }
+
+    @Timed("students.jdbc")
+    public void forEachEmail(Consumer<String> consumer){
+        jdbcTemplate.query(SELECT_EMAILS, (RowCallbackHandler) rs -> consumer.accept(rs.getString(1)));
+    }
+
+    /**
+     * Hands every student to the consumer while reading a forward-only, read-only cursor,
+     * so neither the table nor a persistence context is ever held in memory.
+     */
+    @Timed("students.jdbc")
+    @Transactional(readOnly = true)
+    public void forEachStudent(Consumer<StudentDTO> consumer){
+        jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement ps = connection.prepareStatement(
+                            SELECT_STUDENTS, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY
+                    );
+                    ps.setFetchSize(EXPORT_FETCH_SIZE);
+                    return ps;
+                },
+                (RowCallbackHandler) rs -> consumer.accept(STUDENT_ROW.mapRow(rs, 0))
+        );
+    }
+
+    @Timed("students.jdbc")
+    public void forEachNameByEmail(Collection<String> emails, BiConsumer<Long, String> consumer){
+        namedParameterJdbcTemplate.query(
+                SELECT_NAMES_BY_EMAIL,
+                Map.of("emails", emails),
+                (RowCallbackHandler) rs -> consumer.accept(rs.getLong(1), rs.getString(2))
+        );
+    }
+
+    /**
+     * Runs the update and, when it matched a row, reads that row by {@code key} with {@code select}.
+     */
+    private Optional<StudentDTO> updated(String update, String select, Object key, Object... args){
+        if(jdbcTemplate.update(update, args) == 0) return Optional.empty();
+        List<StudentDTO> students = jdbcTemplate.query(select, STUDENT_ROW, key);
+        if(students.isEmpty()) return Optional.empty();
+        evictAfterCommit(List.of(students.get(0).getId()));
+        return Optional.of(students.get(0));
+    }
+
+    /**
+     * Evicts the given students, or all of them when {@code ids} is null, once the transaction completes.
+     * Cached queries over students are outdated through their query space in the update timestamps: it is
+     * pre-invalidated now, so results a concurrent query caches before the commit are not trusted, and
+     * invalidated on completion, which outdates every result cached until then. Queries over other tables
+     * keep their results.
+     */
+    private void evictAfterCommit(Collection<Long> ids){
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        TimestampsCache timestamps = sessionFactory.getCache().getTimestampsCache();
+        String[] spaces = studentSpaces(sessionFactory);
+        EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        if(!TransactionSynchronizationManager.isSynchronizationActive() || entityManager == null){
+            try (SessionImplementor session = (SessionImplementor) sessionFactory.openSession()) {
+                evict(ids);
+                timestamps.invalidate(spaces, session);
+            }
+            return;
+        }
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        timestamps.preInvalidate(spaces, session);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status){
+                evict(ids);
+                timestamps.invalidate(spaces, session);
+            }
+        });
+    }
+
+    private void evict(Collection<Long> ids){
+        Cache cache = entityManagerFactory.getCache();
+        if(ids == null) cache.evict(Student.class);
+        else ids.forEach(id -> cache.evict(Student.class, id));
+    }
+
+    private static String[] studentSpaces(SessionFactoryImplementor sessionFactory){
+        Serializable[] spaces = sessionFactory.getMetamodel().entityPersister(Student.class).getQuerySpaces();
+        return Arrays.copyOf(spaces, spaces.length, String[].class);
+    }
+}
@@ -1,24 +1,81 @@
 package com.bruno.studentsmanagement.repositories;
 
+import com.bruno.studentsmanagement.dto.StudentDTO;
 import com.bruno.studentsmanagement.entities.Student;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends JpaRepository<Student, Long>, StudentFieldsRepository {
+
+    /** Reads straight into the DTO: no managed entity, no dirty-checking snapshot, nothing left in the persistence context. */
+    String SELECT_DTO = "select new com.bruno.studentsmanagement.dto.StudentDTO("
+            + "s.id, s.name, s.birthDate, s.email, s.phone, s.attendance, s.version) from Student s";
 
     @Transactional(readOnly=true)
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = Student.QUERY_CACHE_REGION)})
     Optional<Student> findByEmail(String email);
 
+    @Transactional(readOnly=true)
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = Student.QUERY_CACHE_REGION)})
+    @Query(SELECT_DTO + " where s.id = :id")
+    Optional<StudentDTO> findDTOById(@Param("id") Long id);
+
+    @Transactional(readOnly=true)
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = Student.QUERY_CACHE_REGION)})
+    @Query(SELECT_DTO + " where s.email = :email")
+    Optional<StudentDTO> findDTOByEmail(@Param("email") String email);
+
+    @Transactional(readOnly=true)
+    @Query(SELECT_DTO + " where s.id in :ids")
+    List<StudentDTO> findDTOByIdIn(@Param("ids") Collection<Long> ids);
+
     @Transactional
-    void deleteByEmail(String email);
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Student s where s.id = :id")
+    int deleteStudentById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Student s where s.email = :email")
+    int deleteByEmail(@Param("email") String email);
+
+    @Transactional(readOnly=true)
+    boolean existsByEmail(String email);
+
+    @Transactional(readOnly=true)
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = Student.QUERY_CACHE_REGION)})
+    @Query(SELECT_DTO + " where upper(s.name) like upper(concat('%', ?#{escape([0])}, '%')) escape ?#{escapeCharacter()} order by s.id")
+    List<StudentDTO> findDTOByNameContainingIgnoreCase(String name, Pageable pageable);
+
+    @Transactional(readOnly=true)
+    @Query(SELECT_DTO + " where s.id > :id order by s.id")
+    List<StudentDTO> findDTOByIdGreaterThan(@Param("id") Long id, Pageable pageable);
 
     @Transactional(readOnly=true)
-    List<Student> findByNameContainingIgnoreCase(String name);
+    @Query("select s.email from Student s where s.email in :emails")
+    Set<String> findRegisteredEmails(@Param("emails") Collection<String> emails);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("select s from Student s order by s.id")
+    Stream<Student> streamAll();
 
 }
@@ -0,0 +1,20 @@
+package com.bruno.studentsmanagement.resources;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Narrows a handler method to requests whose RFC 7240 {@code Prefer} header asks for the given preference,
+ * whatever its value, parameters or the other preferences sent with it. Such a method wins over the same
+ * mapping without it. Needs {@link PreferHandlerMapping}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Prefer {
+
+    String value();
+}
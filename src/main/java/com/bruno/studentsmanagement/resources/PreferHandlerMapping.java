@@ -0,0 +1,19 @@
+package com.bruno.studentsmanagement.resources;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.servlet.mvc.condition.RequestCondition;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+
+/**
+ * Annotated controller mapping that also honours {@link Prefer} on handler methods.
+ */
+public class PreferHandlerMapping extends RequestMappingHandlerMapping {
+
+    @Override
+    protected RequestCondition<?> getCustomMethodCondition(Method method){
+        Prefer prefer = AnnotatedElementUtils.findMergedAnnotation(method, Prefer.class);
+        return prefer == null ? null : new PreferRequestCondition(prefer.value());
+    }
+}
@@ -0,0 +1,57 @@
+package com.bruno.studentsmanagement.resources;
+
+import org.springframework.web.servlet.mvc.condition.RequestCondition;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Matches requests asking for a preference in one of their {@code Prefer} headers. Preferences are comma
+ * separated, each a token optionally followed by {@code =value} and {@code ;parameters}, and tokens are
+ * case-insensitive: {@code respond-async, wait=10} and {@code Respond-Async; x} both ask for respond-async.
+ */
+public class PreferRequestCondition implements RequestCondition<PreferRequestCondition> {
+
+    private static final String PREFER = "Prefer";
+
+    private final String preference;
+
+    public PreferRequestCondition(String preference){
+        this.preference = preference;
+    }
+
+    @Override
+    public PreferRequestCondition combine(PreferRequestCondition other){
+        return other;
+    }
+
+    @Override
+    public PreferRequestCondition getMatchingCondition(HttpServletRequest request){
+        for (String header : Collections.list(request.getHeaders(PREFER))){
+            for (String candidate : header.split(",")){
+                if(token(candidate).equalsIgnoreCase(preference)) return this;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int compareTo(PreferRequestCondition other, HttpServletRequest request){
+        return 0;
+    }
+
+    private static String token(String candidate){
+        int end = candidate.length();
+        for (char separator : new char[]{'=', ';'}){
+            int index = candidate.indexOf(separator);
+            if(index >= 0 && index < end) end = index;
+        }
+        return candidate.substring(0, end).trim();
+    }
+
+    @Override
+    public String toString(){
+        return "[" + PREFER + ": " + preference + "]";
+    }
+}
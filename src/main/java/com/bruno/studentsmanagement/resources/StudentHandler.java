@@ -0,0 +1,175 @@
+package com.bruno.studentsmanagement.resources;
+
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import com.bruno.studentsmanagement.exceptions.ExceptionCounters;
+import com.bruno.studentsmanagement.exceptions.StandardError;
+import com.bruno.studentsmanagement.exceptions.ValidationError;
+import com.bruno.studentsmanagement.services.ReactiveStudentService;
+import com.bruno.studentsmanagement.services.StudentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.time.Instant;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Functional handlers of the reactive profile, exposing the same contract as {@link StudentResource}.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class StudentHandler {
+
+    @Autowired
+    private ReactiveStudentService reactiveStudentService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ExceptionCounters exceptionCounters;
+
+    public Mono<ServerResponse> save(ServerRequest request){
+        return withValidBody(request, studentDTO -> {
+            studentDTO.setAttendance(0);
+            return reactiveStudentService.save(studentDTO)
+                    .flatMap(savedStudent -> ServerResponse
+                            .created(request.uriBuilder().path("/id/{id}").build(savedStudent.getId()))
+                            .bodyValue(savedStudent));
+        });
+    }
+
+    public Mono<ServerResponse> findAll(ServerRequest request){
+        return withValidParams(request, () -> {
+            Long after = request.queryParam("after").map(value -> number("after", value, Long::valueOf)).orElse(null);
+            Integer limit = request.queryParam("limit").map(value -> number("limit", value, Integer::valueOf)).orElse(null);
+            return reactiveStudentService.findAll(after, limit).flatMap(page -> ServerResponse.ok().bodyValue(page));
+        });
+    }
+
+    public Mono<ServerResponse> streamAll(ServerRequest request){
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(reactiveStudentService.streamAll(), StudentDTO.class);
+    }
+
+    public Mono<ServerResponse> findById(ServerRequest request){
+        return withValidParams(request, () -> reactiveStudentService.findById(id(request))
+                .flatMap(studentDTO -> ServerResponse.ok().bodyValue(studentDTO)));
+    }
+
+    public Mono<ServerResponse> findByEmail(ServerRequest request){
+        return reactiveStudentService.findByEmail(request.pathVariable("email"))
+                .flatMap(studentDTO -> ServerResponse.ok().bodyValue(studentDTO));
+    }
+
+    public Mono<ServerResponse> deleteById(ServerRequest request){
+        return withValidParams(request, () -> reactiveStudentService.deleteById(id(request))
+                .then(ServerResponse.noContent().build()));
+    }
+
+    public Mono<ServerResponse> deleteByEmail(ServerRequest request){
+        return reactiveStudentService.deleteByEmail(request.pathVariable("email")).then(ServerResponse.noContent().build());
+    }
+
+    public Mono<ServerResponse> updateById(ServerRequest request){
+        return withValidParams(request, () -> {
+            Long id = id(request);
+            return withValidBody(request, studentDTO -> reactiveStudentService.updateById(id, studentDTO)
+                    .flatMap(updatedStudent -> ServerResponse.ok().bodyValue(updatedStudent)));
+        });
+    }
+
+    public Mono<ServerResponse> updateByEmail(ServerRequest request){
+        return withValidBody(request, studentDTO -> reactiveStudentService.updateByEmail(studentDTO)
+                .flatMap(updatedStudent -> ServerResponse.ok().bodyValue(updatedStudent)));
+    }
+
+    public Mono<ServerResponse> updateEmail(ServerRequest request){
+        return withValidParams(request, () -> reactiveStudentService
+                .updateEmail(id(request), request.pathVariable("email"), request.pathVariable("newEmail"))
+                .flatMap(studentDTO -> ServerResponse.ok().bodyValue(studentDTO)));
+    }
+
+    public Mono<ServerResponse> increaseAttendance(ServerRequest request){
+        return withValidParams(request, () -> reactiveStudentService.increaseAttendance(id(request))
+                .then(ServerResponse.noContent().build()));
+    }
+
+    public Mono<ServerResponse> findByNameContainingIgnoreCase(ServerRequest request){
+        return withValidParams(request, () -> {
+            String text = request.queryParam("name").orElse("");
+            int page = request.queryParam("page").map(value -> number("page", value, Integer::valueOf)).orElse(0);
+            int size = request.queryParam("size")
+                    .map(value -> number("size", value, Integer::valueOf))
+                    .orElse(StudentService.DEFAULT_SEARCH_SIZE);
+            return ServerResponse.ok().body(
+                    reactiveStudentService.findByNameContainingIgnoreCase(text, PageRequest.of(page, size)),
+                    StudentDTO.class
+            );
+        });
+    }
+
+    public Mono<ServerResponse> error(ServerRequest request, HttpStatus status, RuntimeException exception){
+        exceptionCounters.increment(exception);
+        return ServerResponse.status(status).bodyValue(StandardError.of(status, exception.getMessage(), request.path()));
+    }
+
+    private Mono<ServerResponse> withValidBody(ServerRequest request, Function<StudentDTO, Mono<ServerResponse>> handler){
+        return request.bodyToMono(StudentDTO.class)
+                .flatMap(studentDTO -> {
+                    Set<ConstraintViolation<StudentDTO>> violations = validator.validate(studentDTO);
+                    if(violations.isEmpty()) return handler.apply(studentDTO);
+                    return validation(request, violations);
+                })
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.badRequest().build()));
+    }
+
+    /**
+     * Answers 400 rather than 500 when a path or query parameter is not a valid number or page.
+     */
+    private Mono<ServerResponse> withValidParams(ServerRequest request, Supplier<Mono<ServerResponse>> handler){
+        try {
+            return handler.get();
+        } catch (IllegalArgumentException e){
+            return error(request, HttpStatus.BAD_REQUEST, e);
+        }
+    }
+
+    private static Mono<ServerResponse> validation(ServerRequest request, Set<ConstraintViolation<StudentDTO>> violations){
+        int status = HttpStatus.BAD_REQUEST.value();
+        ValidationError error = ValidationError.builder()
+                .timestamp(Instant.now())
+                .status(status)
+                .error("Bad Request")
+                .message("Validation failed for the student informed")
+                .path(request.path())
+                .build();
+        for (ConstraintViolation<StudentDTO> violation : violations){
+            error.addError(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return ServerResponse.status(status).bodyValue(error);
+    }
+
+    private static Long id(ServerRequest request){
+        return number("id", request.pathVariable("id"), Long::valueOf);
+    }
+
+    private static <T> T number(String name, String value, Function<String, T> parser){
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException e){
+            throw new NumberFormatException("Invalid " + name + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.bruno.studentsmanagement.resources;
+
+import com.bruno.studentsmanagement.dto.CursorPageDTO;
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import com.bruno.studentsmanagement.utils.JsonConvertionUtil;
+import com.fasterxml.jackson.dataformat.protobuf.schema.NativeProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes students as Protobuf, following {@code proto/student.proto}: a student is a
+ * {@code Student} message, a cursor page a {@code StudentPage} and a search result a {@code StudentList}.
+ * Pages and lists are only written when their declared element type is {@link StudentDTO}, the schema
+ * has no message for anything else.
+ */
+public class StudentProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType APPLICATION_PROTOBUF = new MediaType("application", "x-protobuf");
+
+    private static final NativeProtobufSchema STUDENT_PROTO = load("proto/student.proto");
+    public static final ProtobufSchema STUDENT = STUDENT_PROTO.forType("Student");
+    public static final ProtobufSchema STUDENT_PAGE = STUDENT_PROTO.forType("StudentPage");
+    public static final ProtobufSchema STUDENT_LIST = STUDENT_PROTO.forType("StudentList");
+
+    public StudentProtobufHttpMessageConverter(){
+        super(APPLICATION_PROTOBUF);
+    }
+
+    /** Without the generic type only a single student is known to fit the schema. */
+    @Override
+    protected boolean supports(Class<?> clazz){
+        return StudentDTO.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType){
+        return type instanceof Class && canRead((Class<?>) type, mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType){
+        if(type == null) return canWrite(clazz, mediaType);
+        return isStudents(ResolvableType.forType(type)) && canWrite(mediaType);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return readInternal(ResolvableType.forType(type).resolve(StudentDTO.class), inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        try {
+            return JsonConvertionUtil.protobufMapper().readerFor(clazz).with(STUDENT).readValue(inputMessage.getBody());
+        } catch (IOException e){
+            throw new HttpMessageNotReadableException("Invalid Protobuf student: " + e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        if(object instanceof List){
+            write(Map.of("content", object), STUDENT_LIST, outputMessage);
+        } else if(object instanceof CursorPageDTO){
+            write(object, STUDENT_PAGE, outputMessage);
+        } else {
+            write(object, STUDENT, outputMessage);
+        }
+    }
+
+    private static boolean isStudents(ResolvableType type){
+        Class<?> clazz = type.toClass();
+        if(StudentDTO.class.isAssignableFrom(clazz)) return true;
+        if(List.class.isAssignableFrom(clazz)) return isStudent(type.as(List.class).getGeneric(0));
+        if(CursorPageDTO.class.isAssignableFrom(clazz)) return isStudent(type.as(CursorPageDTO.class).getGeneric(0));
+        return false;
+    }
+
+    private static boolean isStudent(ResolvableType type){
+        return StudentDTO.class.isAssignableFrom(type.toClass());
+    }
+
+    private static void write(Object object, ProtobufSchema schema, HttpOutputMessage outputMessage) throws IOException {
+        JsonConvertionUtil.protobufMapper().writer(schema).writeValue(StreamUtils.nonClosing(outputMessage.getBody()), object);
+    }
+
+    private static NativeProtobufSchema load(String path){
+        try (InputStream proto = new ClassPathResource(path).getInputStream()) {
+            return ProtobufSchemaLoader.std.parseNative(proto);
+        } catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.bruno.studentsmanagement.resources;
+
+import com.bruno.studentsmanagement.metrics.QueryCount;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs StudentResource handlers. By default they run inline on the servlet thread; with
+ * {@code students.async.enabled=true} they run on a pool sized like the connection pool, so the
+ * servlet threads are released while the database works and at most one handler per connection
+ * is busy. Once the bounded queue is full further requests are rejected instead of piling up.
+ */
+@Component
+public class StudentRequestExecutor implements MeterBinder, DisposableBean {
+
+    private final ThreadPoolExecutor executor;
+
+    public StudentRequestExecutor(
+            @Value("${students.async.enabled:false}") boolean enabled,
+            @Value("${students.async.threads:${spring.datasource.hikari.maximum-pool-size:10}}") int threads,
+            @Value("${students.async.queue-capacity:100}") int queueCapacity
+    ){
+        this.executor = enabled
+                ? new ThreadPoolExecutor(
+                        threads, threads, 0L, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(queueCapacity),
+                        new CustomizableThreadFactory("students-request-"),
+                        new ThreadPoolExecutor.AbortPolicy())
+                : null;
+    }
+
+    public boolean isEnabled(){
+        return executor != null;
+    }
+
+    /**
+     * Runs the task, counting its statements against the request's {@link QueryCount}.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException when the queue is full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task){
+        if(executor == null) return CompletableFuture.completedFuture(task.get());
+        return CompletableFuture.supplyAsync(QueryCount.propagate(task), executor);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry){
+        if(executor != null) new ExecutorServiceMetrics(executor, "students.request", Tags.empty()).bindTo(registry);
+    }
+
+    @Override
+    public void destroy(){
+        if(executor != null) executor.shutdown();
+    }
+}
@@ -1,94 +1,387 @@
 package com.bruno.studentsmanagement.resources;
 
+import com.bruno.studentsmanagement.dto.BatchResultDTO;
+import com.bruno.studentsmanagement.dto.CursorPageDTO;
 import com.bruno.studentsmanagement.dto.StudentDTO;
+import com.bruno.studentsmanagement.dto.WriteStatusDTO;
+import com.bruno.studentsmanagement.services.StudentBatchService;
+import com.bruno.studentsmanagement.services.StudentCsvReader;
+import com.bruno.studentsmanagement.services.StudentExportService;
 import com.bruno.studentsmanagement.services.StudentService;
+import com.bruno.studentsmanagement.services.StudentWriteBehind;
+import com.bruno.studentsmanagement.services.exceptions.StudentModifiedException;
+import com.bruno.studentsmanagement.services.exceptions.WriteNotFoundException;
+import com.bruno.studentsmanagement.utils.StudentJson;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.validation.Valid;
-import java.net.URI;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping(value = "/api/v1/students")
 public class StudentResource {
 
+    private static final Pattern E_TAG = Pattern.compile("\"(\\d+)-(\\d+)\"");
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    /** RFC 7240 preference selecting the write-behind variant of a create or update. */
+    private static final String RESPOND_ASYNC = "respond-async";
+
     @Autowired
     private StudentService studentService;
 
+    @Autowired
+    private StudentBatchService studentBatchService;
+
+    @Autowired
+    private StudentExportService studentExportService;
+
+    @Autowired
+    private StudentRequestExecutor studentRequestExecutor;
+
+    @Autowired
+    private StudentWriteBehind studentWriteBehind;
+
+    @Autowired
+    private StudentJson studentJson;
+
+    @PostMapping
+    public CompletableFuture<ResponseEntity<StudentDTO>> save(@Valid @RequestBody StudentDTO studentDTO){
+        studentDTO.setAttendance(0);
+        ServletUriComponentsBuilder uri = ServletUriComponentsBuilder.fromCurrentRequest();
+        return studentRequestExecutor.submit(() -> {
+            StudentDTO savedStudent = studentService.save(studentDTO);
+            return ResponseEntity.created(uri.path("/id").buildAndExpand(savedStudent.getId()).toUri())
+                    .eTag(eTag(savedStudent))
+                    .body(savedStudent);
+        });
+    }
+
     @PostMapping
-    public ResponseEntity<StudentDTO> save(@Valid @RequestBody StudentDTO studentDTO){
+    @Prefer(RESPOND_ASYNC)
+    public ResponseEntity<WriteStatusDTO> saveLater(@Valid @RequestBody StudentDTO studentDTO){
         studentDTO.setAttendance(0);
-        studentDTO = studentService.save(studentDTO);
-        URI uri = ServletUriComponentsBuilder
-                .fromCurrentRequest()
-                .path("/id")
-                .buildAndExpand(studentDTO.getId())
-                .toUri();
-        return ResponseEntity.created(uri).body(studentDTO);
+        return accepted(studentWriteBehind.enqueue(WriteStatusDTO.Operation.SAVE, studentDTO));
+    }
+
+    @GetMapping(value = "/writes/{id}")
+    public ResponseEntity<WriteStatusDTO> writeStatus(@PathVariable String id){
+        return ResponseEntity.ok(studentWriteBehind.status(id).orElseThrow(() -> new WriteNotFoundException(id)));
     }
 
-    @GetMapping
-    public ResponseEntity<List<StudentDTO>> findAll(){
-        List<StudentDTO> list = studentService.findAll();
-        return ResponseEntity.ok(list);
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatchResultDTO> saveAll(@RequestBody List<StudentDTO> students){
+        BatchResultDTO result = studentBatchService.saveAll(students.iterator());
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BatchResultDTO> saveAll(InputStream inputStream) throws IOException {
+        try (MappingIterator<StudentDTO> students = studentJson.reader().readValues(inputStream)) {
+            BatchResultDTO result = studentBatchService.saveAll(students);
+            return ResponseEntity.ok(result);
+        }
+    }
+
+    /**
+     * Imports a CSV with the export's columns and streams back, as NDJSON, one BatchErrorDTO per
+     * rejected row as soon as it is known, followed by the BatchResultDTO totals.
+     */
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importAll(InputStream inputStream){
+        StudentCsvReader students = new StudentCsvReader(inputStream);
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter lines = studentJson.mapper().writer()
+                    .withRootValueSeparator("\n")
+                    .writeValues(StreamUtils.nonClosing(outputStream))) {
+                BatchResultDTO result = studentBatchService.saveAll(students, error -> write(lines, error));
+                lines.write(result);
+            }
+            outputStream.write('\n');
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping(params = "!fields")
+    public CompletableFuture<ResponseEntity<CursorPageDTO<StudentDTO>>> findAll(
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ){
+        return studentRequestExecutor.submit(() -> ResponseEntity.ok(studentService.findAll(after, limit)));
+    }
+
+    @GetMapping(params = "fields")
+    public CompletableFuture<ResponseEntity<CursorPageDTO<Map<String, Object>>>> findAll(
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "fields") String fields
+    ){
+        return studentRequestExecutor.submit(() -> ResponseEntity.ok(studentService.findAll(after, limit, fields)));
+    }
+
+    @GetMapping(value = "/stream")
+    public ResponseEntity<StreamingResponseBody> streamAll(){
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = studentJson.mapper().getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                studentService.streamAll(studentDTO -> write(generator, studentDTO));
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * The whole table as CSV or NDJSON, streamed while it is read. Gzipped when the client accepts it.
+     */
+    @GetMapping(value = "/export")
+    public ResponseEntity<StreamingResponseBody> exportAll(
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ){
+        StudentExportService.Format exportFormat = StudentExportService.Format.of(format);
+        boolean gzip = acceptEncoding != null && acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = outputStream -> {
+            if(!gzip){
+                studentExportService.exportAll(exportFormat, outputStream);
+                return;
+            }
+            GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE);
+            studentExportService.exportAll(exportFormat, gzipStream);
+            gzipStream.finish();
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=students." + exportFormat.getExtension())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if(gzip) response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return response.body(body);
     }
 
     @GetMapping(value = "/id/{id}")
-    public ResponseEntity<StudentDTO> findById(@PathVariable Long id){
-        StudentDTO studentDTO = studentService.findById(id);
-        return ResponseEntity.ok(studentDTO);
+    public CompletableFuture<ResponseEntity<StudentDTO>> findById(
+            @PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ){
+        return studentRequestExecutor.submit(() -> conditional(studentService.findById(id), ifNoneMatch));
     }
 
     @GetMapping(value = "/email/{email}")
-    public ResponseEntity<StudentDTO> findByEmail(@PathVariable String email){
-        StudentDTO studentDTO = studentService.findByEmail(email);
-        return ResponseEntity.ok(studentDTO);
+    public CompletableFuture<ResponseEntity<StudentDTO>> findByEmail(
+            @PathVariable String email, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ){
+        return studentRequestExecutor.submit(() -> conditional(studentService.findByEmail(email), ifNoneMatch));
     }
 
     @DeleteMapping(value = "/id/{id}")
-    public ResponseEntity<Void> deleteById(@PathVariable Long id){
-        studentService.deleteById(id);
-        return ResponseEntity.noContent().build();
+    public CompletableFuture<ResponseEntity<Void>> deleteById(@PathVariable Long id){
+        return studentRequestExecutor.submit(() -> {
+            studentService.deleteById(id);
+            return ResponseEntity.noContent().build();
+        });
     }
 
     @DeleteMapping(value = "/email/{email}")
-    public ResponseEntity<Void> deleteByEmail(@PathVariable String email){
-        studentService.deleteByEmail(email);
-        return ResponseEntity.noContent().build();
+    public CompletableFuture<ResponseEntity<Void>> deleteByEmail(@PathVariable String email){
+        return studentRequestExecutor.submit(() -> {
+            studentService.deleteByEmail(email);
+            return ResponseEntity.noContent().build();
+        });
     }
 
     @PutMapping(value = "/id/{id}")
-    public ResponseEntity<StudentDTO> updateById(@PathVariable Long id, @Valid @RequestBody StudentDTO studentDTO){
-        studentDTO = studentService.updateById(id, studentDTO);
-        return ResponseEntity.ok(studentDTO);
+    public CompletableFuture<ResponseEntity<StudentDTO>> updateById(
+            @PathVariable Long id, @Valid @RequestBody StudentDTO studentDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ){
+        studentDTO.setVersion(version(ifMatch));
+        return studentRequestExecutor.submit(() -> withETag(studentService.updateById(id, studentDTO)));
+    }
+
+    @PutMapping(value = "/id/{id}")
+    @Prefer(RESPOND_ASYNC)
+    public ResponseEntity<WriteStatusDTO> updateByIdLater(
+            @PathVariable Long id, @Valid @RequestBody StudentDTO studentDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ){
+        studentDTO.setId(id);
+        studentDTO.setVersion(version(ifMatch));
+        return accepted(studentWriteBehind.enqueue(WriteStatusDTO.Operation.UPDATE_BY_ID, studentDTO));
     }
 
     @PutMapping
-    public ResponseEntity<StudentDTO> updateByEmail(@Valid @RequestBody StudentDTO studentDTO){
-        studentDTO = studentService.updateByEmail(studentDTO);
-        return ResponseEntity.ok(studentDTO);
+    public CompletableFuture<ResponseEntity<StudentDTO>> updateByEmail(
+            @Valid @RequestBody StudentDTO studentDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ){
+        studentDTO.setVersion(version(ifMatch));
+        return studentRequestExecutor.submit(() -> withETag(studentService.updateByEmail(studentDTO)));
+    }
+
+    @PutMapping
+    @Prefer(RESPOND_ASYNC)
+    public ResponseEntity<WriteStatusDTO> updateByEmailLater(
+            @Valid @RequestBody StudentDTO studentDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ){
+        studentDTO.setVersion(version(ifMatch));
+        return accepted(studentWriteBehind.enqueue(WriteStatusDTO.Operation.UPDATE_BY_EMAIL, studentDTO));
     }
 
     @PatchMapping(value = "/{id}/{email}/{newEmail}")
-    public ResponseEntity<StudentDTO> updateEmail(
-            @PathVariable Long id, @PathVariable String email, @PathVariable String newEmail
+    public CompletableFuture<ResponseEntity<StudentDTO>> updateEmail(
+            @PathVariable Long id, @PathVariable String email, @PathVariable String newEmail,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ){
-        StudentDTO studentDTO = studentService.updateEmail(id, email, newEmail);
-        return ResponseEntity.ok(studentDTO);
+        Long version = version(ifMatch);
+        return studentRequestExecutor.submit(() -> withETag(studentService.updateEmail(id, email, newEmail, version)));
     }
 
     @PatchMapping(value = "/{id}")
-    public ResponseEntity<Void> increaseAttendance(@PathVariable Long id){
-        studentService.increaseAttendance(id);
-        return ResponseEntity.noContent().build();
+    public CompletableFuture<ResponseEntity<Void>> increaseAttendance(@PathVariable Long id){
+        return studentRequestExecutor.submit(() -> {
+            studentService.increaseAttendance(id);
+            return ResponseEntity.noContent().build();
+        });
+    }
+
+    @GetMapping(value = "/search", params = "!fields")
+    public CompletableFuture<ResponseEntity<List<StudentDTO>>> findByNameContainingIgnoreCase(
+            @RequestParam(value = "name", defaultValue = "") String text,
+            @PageableDefault(size = StudentService.DEFAULT_SEARCH_SIZE) Pageable pageable
+    ){
+        return studentRequestExecutor.submit(() -> ResponseEntity.ok(studentService.findByNameContainingIgnoreCase(text, pageable)));
+    }
+
+    @GetMapping(value = "/search", params = "fields")
+    public CompletableFuture<ResponseEntity<List<Map<String, Object>>>> findByNameContainingIgnoreCase(
+            @RequestParam(value = "name", defaultValue = "") String text,
+            @RequestParam(value = "fields") String fields,
+            @PageableDefault(size = StudentService.DEFAULT_SEARCH_SIZE) Pageable pageable
+    ){
+        return studentRequestExecutor.submit(() -> ResponseEntity.ok(studentService.findByNameContainingIgnoreCase(text, pageable, fields)));
+    }
+
+    /**
+     * Strong ETag of a student: its version, incremented by every stored change including attendance flushes,
+     * and its attendance, which also counts the increments not flushed yet and so moves ahead of the version.
+     */
+    private static String eTag(StudentDTO studentDTO){
+        return "\"" + studentDTO.getVersion() + "-" + studentDTO.getAttendance() + "\"";
+    }
+
+    private static ResponseEntity<StudentDTO> conditional(StudentDTO studentDTO, String ifNoneMatch){
+        String eTag = eTag(studentDTO);
+        if(ifNoneMatch != null && matches(ifNoneMatch, eTag)){
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(studentDTO);
+    }
+
+    /**
+     * 202 pointing at the status of a write left to the write-behind queue.
+     */
+    private static ResponseEntity<WriteStatusDTO> accepted(WriteStatusDTO status){
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                        .path("/api/v1/students/writes/{id}")
+                        .buildAndExpand(status.getId())
+                        .toUri())
+                .header("Preference-Applied", RESPOND_ASYNC)
+                .body(status);
+    }
+
+    private static ResponseEntity<StudentDTO> withETag(StudentDTO studentDTO){
+        return ResponseEntity.ok().eTag(eTag(studentDTO)).body(studentDTO);
+    }
+
+    private static boolean matches(String ifNoneMatch, String eTag){
+        for (String candidate : ifNoneMatch.split(",")){
+            String tag = candidate.trim();
+            if(tag.startsWith("W/")) tag = tag.substring(2);
+            if(tag.equals("*") || tag.equals(eTag)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Whether an Accept-Encoding header gives gzip, or its old alias x-gzip, a non-zero weight. Naming it
+     * takes precedence over a {@code *} wildcard, so {@code *, gzip;q=0} refuses it.
+     */
+    private static boolean acceptsGzip(String acceptEncoding){
+        double gzip = -1;
+        double any = -1;
+        for (String coding : acceptEncoding.split(",")){
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim();
+            double weight = weight(parameters);
+            if(name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) gzip = Math.max(gzip, weight);
+            else if(name.equals("*")) any = Math.max(any, weight);
+        }
+        return gzip >= 0 ? gzip > 0 : any > 0;
+    }
+
+    /**
+     * The q parameter of a content coding, 1 when it has none and 0 when it is not a number.
+     */
+    private static double weight(String[] parameters){
+        for (int i = 1; i < parameters.length; i++){
+            String parameter = parameters[i].trim();
+            if(parameter.length() < 2 || !parameter.regionMatches(true, 0, "q=", 0, 2)) continue;
+            try {
+                return Double.parseDouble(parameter.substring(2).trim());
+            } catch (NumberFormatException e){
+                return 0;
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Version an If-Match header requires, or null when it places no condition on the update.
+     */
+    private static Long version(String ifMatch){
+        if(ifMatch == null || ifMatch.trim().equals("*")) return null;
+        Matcher matcher = E_TAG.matcher(ifMatch.trim());
+        if(!matcher.matches()) throw new StudentModifiedException(ifMatch);
+        return Long.valueOf(matcher.group(1));
+    }
+
+    private static void write(SequenceWriter lines, Object value){
+        try {
+            lines.write(value);
+        } catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
     }
 
-    @GetMapping(value = "/search")
-    public ResponseEntity<List<StudentDTO>> findByNameContainingIgnoreCase(@RequestParam(value = "name", defaultValue = "") String text){
-        List<StudentDTO> list = studentService.findByNameContainingIgnoreCase(text);
-        return ResponseEntity.ok(list);
+    private void write(JsonGenerator generator, StudentDTO studentDTO){
+        try {
+            studentJson.writer().writeValue(generator, studentDTO);
+        } catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
     }
 }
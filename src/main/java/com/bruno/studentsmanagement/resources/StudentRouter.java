@@ -0,0 +1,51 @@
+package com.bruno.studentsmanagement.resources;
+
+import com.bruno.studentsmanagement.services.exceptions.EmailAlreadyRegisteredException;
+import com.bruno.studentsmanagement.services.exceptions.StudentInconsistencyException;
+import com.bruno.studentsmanagement.services.exceptions.StudentNotFoundException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class StudentRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> studentRoutes(StudentHandler studentHandler){
+        return RouterFunctions.route()
+                .path("/api/v1/students", builder -> builder
+                        .POST("", studentHandler::save)
+                        .GET("", studentHandler::findAll)
+                        .GET("/stream", studentHandler::streamAll)
+                        .GET("/search", studentHandler::findByNameContainingIgnoreCase)
+                        .GET("/id/{id}", studentHandler::findById)
+                        .GET("/email/{email}", studentHandler::findByEmail)
+                        .DELETE("/id/{id}", studentHandler::deleteById)
+                        .DELETE("/email/{email}", studentHandler::deleteByEmail)
+                        .PUT("/id/{id}", studentHandler::updateById)
+                        .PUT("", studentHandler::updateByEmail)
+                        .PATCH("/{id}/{email}/{newEmail}", studentHandler::updateEmail)
+                        .PATCH("/{id}", studentHandler::increaseAttendance))
+                .onError(EmailAlreadyRegisteredException.class,
+                        (exception, request) -> studentHandler.error(request, HttpStatus.BAD_REQUEST, exception))
+                .onError(StudentInconsistencyException.class,
+                        (exception, request) -> studentHandler.error(request, HttpStatus.BAD_REQUEST, exception))
+                .onError(StudentNotFoundException.class,
+                        (exception, request) -> studentHandler.error(request, HttpStatus.NOT_FOUND, exception))
+                .build();
+    }
+
+    /**
+     * Serves the reactive profile on Netty rather than on the Tomcat brought in by the servlet stack.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(){
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,159 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.repositories.StudentJdbcRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * Accumulates attendance increments in memory and writes them behind in batches.
+ * Draining relies on {@link LongAdder#sumThenReset()} resetting each cell atomically (Java 9+),
+ * so increments racing with a flush are kept for the next one instead of being lost.
+ * A flush holds {@link #flushes} exclusively from draining the deltas until the flushed students are
+ * evicted, so a {@link #read(Supplier)} sees either the stored attendance before it plus every pending
+ * increment, or the stored attendance after it, never a mix. Writes that set the attendance outright
+ * run through {@link #overwrite(Supplier)}, which keeps flushes out while they drop what they supersede.
+ */
+@Component
+public class AttendanceCounter implements MeterBinder {
+
+    private final Map<Long, PendingDelta> pendingDeltas = new ConcurrentHashMap<>();
+    private final StampedLock flushes = new StampedLock();
+
+    @Autowired
+    private StudentJdbcRepository studentJdbcRepository;
+
+    @Autowired
+    private StudentCache studentCache;
+
+    public long increment(Long id){
+        return add(id, 1);
+    }
+
+    public long pending(Long id){
+        PendingDelta delta = pendingDeltas.get(id);
+        return delta == null ? 0 : delta.value.sum();
+    }
+
+    public void discard(Long id){
+        pendingDeltas.remove(id);
+    }
+
+    /**
+     * Runs a read combining stored and pending attendance. It runs again, without any flush in
+     * progress, when a flush overlapped it, so it must be safe to repeat.
+     */
+    public <T> T read(Supplier<T> read){
+        long stamp = flushes.tryOptimisticRead();
+        if(stamp != 0){
+            T value = read.get();
+            if(flushes.validate(stamp)) return value;
+        }
+        stamp = flushes.readLock();
+        try {
+            return read.get();
+        } finally {
+            flushes.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Runs a write setting the attendance outright, which is expected to {@link #discard(Long)} the increments
+     * it supersedes. No flush runs meanwhile, so none adds those increments on top of the value written.
+     */
+    public <T> T overwrite(Supplier<T> write){
+        long stamp = flushes.readLock();
+        try {
+            return write.get();
+        } finally {
+            flushes.unlockRead(stamp);
+        }
+    }
+
+    @PreDestroy
+    @Timed(value = "students.attendance.flush")
+    @Scheduled(fixedDelayString = "${students.attendance.flush-interval-ms:1000}")
+    public void flush(){
+        long stamp = flushes.writeLock();
+        try {
+            Map<Long, Long> deltas = new HashMap<>();
+            pendingDeltas.forEach((id, delta) -> {
+                long value = delta.value.sumThenReset();
+                if(value != 0) deltas.put(id, value);
+                prune(id);
+            });
+            if(deltas.isEmpty()) return;
+            try {
+                studentJdbcRepository.addAttendance(deltas);
+            } catch (DataAccessException e){
+                deltas.forEach(this::add);
+                throw e;
+            }
+            deltas.keySet().forEach(studentCache::evict);
+        } finally {
+            flushes.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Adds to the student's delta. When a flush pruned that delta meanwhile, whatever is left in it,
+     * this addition included, is moved to the delta that replaced it.
+     */
+    private long add(Long id, long value){
+        PendingDelta delta = pendingDeltas.computeIfAbsent(id, key -> new PendingDelta());
+        delta.value.add(value);
+        if(delta.removed){
+            long left = delta.value.sumThenReset();
+            if(left != 0) return add(id, left);
+        }
+        return delta.value.sum();
+    }
+
+    /**
+     * Drops the student's delta once it is empty, so students no longer incremented are not kept forever.
+     * The delta is marked removed before it is checked, so an addition either shows in that check or sees
+     * the mark and moves itself, as in {@link #add(Long, long)}.
+     */
+    private void prune(Long id){
+        pendingDeltas.computeIfPresent(id, (key, delta) -> {
+            delta.removed = true;
+            if(delta.value.sum() == 0) return null;
+            delta.removed = false;
+            return delta;
+        });
+    }
+
+    int tracked(){
+        return pendingDeltas.size();
+    }
+
+    public long pendingTotal(){
+        return pendingDeltas.values().stream().mapToLong(delta -> delta.value.sum()).sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry){
+        Gauge.builder("students.attendance.pending", this, AttendanceCounter::pendingTotal)
+                .description("Attendance increments not yet written to the database")
+                .register(registry);
+    }
+
+    private static class PendingDelta {
+
+        private final LongAdder value = new LongAdder();
+        private volatile boolean removed;
+    }
+}
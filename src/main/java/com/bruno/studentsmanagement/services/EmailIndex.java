@@ -0,0 +1,115 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.repositories.StudentJdbcRepository;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bloom filter over the registered emails, telling when an email is certainly free so the query
+ * checking it can be skipped. It is filled from {@code tb_student} once the application is ready and
+ * every email written afterwards is added to it, so it has no false negatives; emails freed by a delete
+ * or an email change stay in it as false positives until the next start. Until it is filled every email
+ * may be registered. The unique constraint on the email remains the guard against concurrent writes.
+ */
+@Component
+public class EmailIndex implements MeterBinder {
+
+    private final BloomFilter<String> emails;
+    private final long bitSize;
+    private final LongAdder absent = new LongAdder();
+    private final LongAdder present = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private volatile boolean ready;
+
+    @Autowired
+    private StudentJdbcRepository studentJdbcRepository;
+
+    public EmailIndex(
+            @Value("${students.email-index.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${students.email-index.false-positive-probability:0.01}") double falsePositiveProbability
+    ){
+        this.emails = BloomFilter.create(
+                Funnels.stringFunnel(StandardCharsets.UTF_8), expectedInsertions, falsePositiveProbability
+        );
+        this.bitSize = (long) (-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild(){
+        studentJdbcRepository.forEachEmail(this::add);
+        ready = true;
+    }
+
+    public boolean isReady(){
+        return ready;
+    }
+
+    public void add(String email){
+        if(email != null) emails.put(email);
+    }
+
+    /**
+     * @return false only when no student is registered with the email
+     */
+    public boolean mightContain(String email){
+        if(!ready) return true;
+        if(emails.mightContain(email)){
+            present.increment();
+            return true;
+        }
+        absent.increment();
+        return false;
+    }
+
+    /**
+     * Records emails reported by {@link #mightContain(String)} that the database then did not find.
+     */
+    public void falsePositives(long count){
+        if(ready) falsePositives.add(count);
+    }
+
+    public double falsePositiveRate(){
+        double negatives = absent.sum() + falsePositives.sum();
+        return negatives == 0 ? 0 : falsePositives.sum() / negatives;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry){
+        FunctionCounter.builder("students.email.index.lookups", absent, LongAdder::sum)
+                .description("Emails the index reported as certainly free")
+                .tag("result", "absent")
+                .register(registry);
+        FunctionCounter.builder("students.email.index.lookups", present, LongAdder::sum)
+                .description("Emails the index reported as possibly registered")
+                .tag("result", "maybe")
+                .register(registry);
+        FunctionCounter.builder("students.email.index.false.positives", falsePositives, LongAdder::sum)
+                .description("Emails reported as possibly registered that were free")
+                .register(registry);
+        Gauge.builder("students.email.index.false.positive.rate", this, EmailIndex::falsePositiveRate)
+                .description("Share of free emails the index failed to recognize")
+                .register(registry);
+        Gauge.builder("students.email.index.expected.false.positive.rate", emails, BloomFilter::expectedFpp)
+                .description("False positive probability expected from the emails added so far")
+                .register(registry);
+        Gauge.builder("students.email.index.emails", emails, BloomFilter::approximateElementCount)
+                .description("Approximate number of emails added to the index")
+                .register(registry);
+        Gauge.builder("students.email.index.memory", this, index -> index.bitSize / Byte.SIZE)
+                .description("Memory held by the index's bit array")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+}
@@ -0,0 +1,209 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.repositories.StudentJdbcRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over student names, answering case-insensitive "contains" searches
+ * without scanning {@code tb_student}. Posting lists are kept sorted by id so a page of results
+ * can be produced by walking the shortest list and stopping as soon as the page is full.
+ * Ids of students deleted behind the index's back are pruned when a search resolves them.
+ * A rebuild fills a fresh index and swaps it in, replaying the changes made while it scanned,
+ * so names indexed before it and gone since do not linger.
+ */
+@Component
+public class NameSearchIndex implements MeterBinder {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final ReadWriteLock swap = new ReentrantReadWriteLock();
+    private volatile Index current = new Index();
+    private volatile Queue<Map.Entry<Long, String>> rebuilding;
+    private volatile boolean ready;
+
+    @Autowired
+    private StudentJdbcRepository studentJdbcRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild(){
+        Queue<Map.Entry<Long, String>> changes = new ConcurrentLinkedQueue<>();
+        rebuilding = changes;
+        Index fresh = new Index();
+        try {
+            studentJdbcRepository.forEachName(fresh::index);
+        } catch (RuntimeException e){
+            rebuilding = null;
+            throw e;
+        }
+        swap.writeLock().lock();
+        try {
+            changes.forEach(change -> fresh.apply(change.getKey(), change.getValue()));
+            current = fresh;
+            rebuilding = null;
+        } finally {
+            swap.writeLock().unlock();
+        }
+        ready = true;
+    }
+
+    public boolean isReady(){
+        return ready;
+    }
+
+    public void index(Long id, String name){
+        change(id, normalize(name));
+    }
+
+    public void remove(Long id){
+        change(id, null);
+    }
+
+    /**
+     * Returns, in ascending order, the ids of the students whose name contains {@code text},
+     * skipping the first {@code offset} matches and returning at most {@code limit} of them.
+     */
+    public List<Long> search(String text, long offset, int limit){
+        Index index = current;
+        String normalized = normalize(text);
+        NavigableSet<Long> candidates = normalized.length() < GRAM_LENGTH
+                ? index.names.keySet()
+                : index.shortestPosting(normalized);
+        List<Long> ids = new ArrayList<>(limit);
+        long skipped = 0;
+        for(Long id : candidates){
+            String name = index.names.get(id);
+            if(name == null || !name.contains(normalized)) continue;
+            if(skipped++ < offset) continue;
+            ids.add(id);
+            if(ids.size() == limit) break;
+        }
+        return ids;
+    }
+
+    public int size(){
+        return current.names.size();
+    }
+
+    public int gramCount(){
+        return current.postings.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry){
+        Gauge.builder("students.search.index.names", this, NameSearchIndex::size)
+                .description("Student names held by the search index")
+                .register(registry);
+        Gauge.builder("students.search.index.grams", this, NameSearchIndex::gramCount)
+                .description("Distinct trigrams held by the search index")
+                .register(registry);
+    }
+
+    /**
+     * Applies a change to the index in use and, while a rebuild is scanning, records it to be replayed
+     * on the fresh index. Changes share {@link #swap} so that none falls between the replay and the swap.
+     */
+    private void change(Long id, String normalized){
+        swap.readLock().lock();
+        try {
+            Queue<Map.Entry<Long, String>> changes = rebuilding;
+            if(changes != null) changes.add(new AbstractMap.SimpleImmutableEntry<>(id, normalized));
+            current.apply(id, normalized);
+        } finally {
+            swap.readLock().unlock();
+        }
+    }
+
+    private static Set<String> grams(String normalized){
+        Set<String> grams = new HashSet<>();
+        for(int i = 0; i + GRAM_LENGTH <= normalized.length(); i++){
+            grams.add(normalized.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text){
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static class Index {
+
+        private final ConcurrentSkipListMap<Long, String> names = new ConcurrentSkipListMap<>();
+        private final Map<String, Posting> postings = new ConcurrentHashMap<>();
+
+        private void index(Long id, String name){
+            apply(id, normalize(name));
+        }
+
+        /** Indexes the normalized name, or removes the student when it is null. */
+        private void apply(Long id, String normalized){
+            String previous = normalized == null ? names.remove(id) : names.put(id, normalized);
+            if(previous != null && previous.equals(normalized)) return;
+            if(previous != null) grams(previous).forEach(gram -> removePosting(gram, id));
+            if(normalized != null) grams(normalized).forEach(gram -> addPosting(gram, id));
+        }
+
+        private NavigableSet<Long> shortestPosting(String normalized){
+            Posting shortest = null;
+            for(String gram : grams(normalized)){
+                Posting posting = postings.get(gram);
+                if(posting == null) return Collections.emptyNavigableSet();
+                if(shortest == null || posting.size.sum() < shortest.size.sum()) shortest = posting;
+            }
+            return shortest.ids;
+        }
+
+        private void addPosting(String gram, Long id){
+            postings.compute(gram, (key, posting) -> {
+                Posting added = posting == null ? new Posting() : posting;
+                added.add(id);
+                return added;
+            });
+        }
+
+        /** Drops the posting once its last id is gone, atomically with additions to the same trigram. */
+        private void removePosting(String gram, Long id){
+            postings.computeIfPresent(gram, (key, posting) -> {
+                posting.remove(id);
+                return posting.ids.isEmpty() ? null : posting;
+            });
+        }
+    }
+
+    private static class Posting {
+
+        private final ConcurrentSkipListSet<Long> ids = new ConcurrentSkipListSet<>();
+        private final LongAdder size = new LongAdder();
+
+        private void add(Long id){
+            if(ids.add(id)) size.increment();
+        }
+
+        private void remove(Long id){
+            if(ids.remove(id)) size.decrement();
+        }
+    }
+}
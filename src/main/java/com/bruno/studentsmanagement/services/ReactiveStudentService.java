@@ -0,0 +1,169 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.dto.CursorPageDTO;
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import com.bruno.studentsmanagement.entities.StudentRecord;
+import com.bruno.studentsmanagement.repositories.ReactiveStudentRepository;
+import com.bruno.studentsmanagement.services.exceptions.EmailAlreadyRegisteredException;
+import com.bruno.studentsmanagement.services.exceptions.StudentInconsistencyException;
+import com.bruno.studentsmanagement.services.exceptions.StudentNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+
+/**
+ * Non-blocking counterpart of {@link StudentService} backed by R2DBC. It reads and writes the
+ * database directly, without the cache, the attendance counter or the name index of the servlet stack.
+ * Only the {@link EmailIndex} is shared, to skip the email check when the email is certainly free.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveStudentService {
+
+    @Autowired
+    private ReactiveStudentRepository reactiveStudentRepository;
+
+    @Autowired
+    private EmailIndex emailIndex;
+
+    public Mono<StudentDTO> save(StudentDTO studentDTO){
+        return checkStudentEmail(studentDTO.getEmail())
+                .then(Mono.defer(() -> reactiveStudentRepository.save(fromDTO(studentDTO))))
+                .onErrorMap(ReactiveStudentService::emailTaken, e -> new EmailAlreadyRegisteredException(studentDTO.getEmail()))
+                .map(ReactiveStudentService::toDTO);
+    }
+
+    public Mono<CursorPageDTO<StudentDTO>> findAll(Long after, Integer limit){
+        int size = StudentService.pageSize(limit);
+        return reactiveStudentRepository.findByIdGreaterThanOrderByIdAsc(after == null ? 0L : after, PageRequest.of(0, size + 1))
+                .map(ReactiveStudentService::toDTO)
+                .collectList()
+                .map(students -> {
+                    if(students.size() <= size) return new CursorPageDTO<>(students, null);
+                    return new CursorPageDTO<>(new ArrayList<>(students.subList(0, size)), students.get(size - 1).getId());
+                });
+    }
+
+    public Flux<StudentDTO> streamAll(){
+        return reactiveStudentRepository.findAll(Sort.by("id")).map(ReactiveStudentService::toDTO);
+    }
+
+    public Mono<StudentDTO> findById(Long id){
+        return loadById(id).map(ReactiveStudentService::toDTO);
+    }
+
+    public Mono<StudentDTO> findByEmail(String email){
+        return loadByEmail(email).map(ReactiveStudentService::toDTO);
+    }
+
+    public Mono<Void> deleteById(Long id){
+        return loadById(id).flatMap(student -> reactiveStudentRepository.deleteById(id));
+    }
+
+    public Mono<Void> deleteByEmail(String email){
+        return loadByEmail(email).flatMap(student -> reactiveStudentRepository.deleteByEmail(email)).then();
+    }
+
+    public Mono<StudentDTO> updateById(Long id, StudentDTO studentDTO){
+        return loadById(id).flatMap(savedStudent -> update(savedStudent, studentDTO));
+    }
+
+    public Mono<StudentDTO> updateByEmail(StudentDTO studentDTO){
+        return loadByEmail(studentDTO.getEmail()).flatMap(savedStudent -> update(savedStudent, studentDTO));
+    }
+
+    public Mono<StudentDTO> updateEmail(Long id, String email, String newEmail){
+        return loadById(id)
+                .flatMap(student -> {
+                    if(!student.getEmail().equals(email)) return Mono.error(new StudentInconsistencyException(email, id));
+                    student.setEmail(newEmail);
+                    emailIndex.add(newEmail);
+                    return reactiveStudentRepository.save(student);
+                })
+                .onErrorMap(ReactiveStudentService::emailTaken, e -> new EmailAlreadyRegisteredException(newEmail))
+                .map(ReactiveStudentService::toDTO);
+    }
+
+    public Mono<StudentDTO> increaseAttendance(Long id){
+        return reactiveStudentRepository.increaseAttendance(id)
+                .flatMap(updated -> updated == 0 ? Mono.error(new StudentNotFoundException(id)) : findById(id));
+    }
+
+    public Flux<StudentDTO> findByNameContainingIgnoreCase(String name, Pageable pageable){
+        int size = Math.min(pageable.getPageSize(), StudentService.MAX_SEARCH_SIZE);
+        return reactiveStudentRepository.findByNameContainingIgnoreCase(name, PageRequest.of(pageable.getPageNumber(), size, Sort.by("id")))
+                .map(ReactiveStudentService::toDTO);
+    }
+
+    private Mono<StudentDTO> update(StudentRecord savedStudent, StudentDTO studentDTO){
+        Mono<Void> check = studentDTO.getEmail().equals(savedStudent.getEmail())
+                ? Mono.empty()
+                : checkStudentEmail(studentDTO.getEmail());
+        studentDTO.setId(savedStudent.getId());
+        if(studentDTO.getAttendance() == null) studentDTO.setAttendance(savedStudent.getAttendance());
+        studentDTO.setVersion(savedStudent.getVersion());
+        return check.then(Mono.defer(() -> reactiveStudentRepository.save(fromDTO(studentDTO))))
+                .onErrorMap(ReactiveStudentService::emailTaken, e -> new EmailAlreadyRegisteredException(studentDTO.getEmail()))
+                .map(ReactiveStudentService::toDTO);
+    }
+
+    private Mono<StudentRecord> loadById(Long id){
+        return reactiveStudentRepository.findById(id).switchIfEmpty(Mono.error(() -> new StudentNotFoundException(id)));
+    }
+
+    private Mono<StudentRecord> loadByEmail(String email){
+        return reactiveStudentRepository.findByEmail(email).switchIfEmpty(Mono.error(() -> new StudentNotFoundException(email)));
+    }
+
+    /**
+     * Completes empty when the email is free, having added it to the index ahead of the write.
+     */
+    private Mono<Void> checkStudentEmail(String email){
+        return Mono.defer(() -> {
+            if(!emailIndex.mightContain(email)) return Mono.<Void>fromRunnable(() -> emailIndex.add(email));
+            return reactiveStudentRepository.findByEmail(email)
+                    .flatMap(student -> Mono.<Void>error(new EmailAlreadyRegisteredException(email)))
+                    .switchIfEmpty(Mono.fromRunnable(() -> {
+                        emailIndex.falsePositives(1);
+                        emailIndex.add(email);
+                    }));
+        });
+    }
+
+    private static boolean emailTaken(Throwable e){
+        return e instanceof DataIntegrityViolationException && StudentService.emailTaken((DataIntegrityViolationException) e);
+    }
+
+    static StudentRecord fromDTO(StudentDTO studentDTO){
+        return new StudentRecord(
+                studentDTO.getId(),
+                studentDTO.getName(),
+                studentDTO.getBirthDate(),
+                studentDTO.getEmail(),
+                studentDTO.getPhone(),
+                studentDTO.getAttendance(),
+                studentDTO.getVersion()
+        );
+    }
+
+    static StudentDTO toDTO(StudentRecord student){
+        return new StudentDTO(
+                student.getId(),
+                student.getName(),
+                student.getBirthDate(),
+                student.getEmail(),
+                student.getPhone(),
+                student.getAttendance(),
+                student.getVersion()
+        );
+    }
+
+}
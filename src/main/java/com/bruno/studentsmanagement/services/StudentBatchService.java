@@ -0,0 +1,162 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.dto.BatchErrorDTO;
+import com.bruno.studentsmanagement.dto.BatchResultDTO;
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import com.bruno.studentsmanagement.exceptions.FieldMessage;
+import com.bruno.studentsmanagement.repositories.StudentJdbcRepository;
+import com.bruno.studentsmanagement.repositories.StudentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+@Service
+public class StudentBatchService {
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private static final String EMAIL_ALREADY_REGISTERED =
+            "The email address provided (%s) is already registered by another student!";
+    private static final String EMAIL_REPEATED = "The email address provided (%s) appears more than once in this batch!";
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentJdbcRepository studentJdbcRepository;
+
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+
+    @Autowired
+    private StudentValidator studentValidator;
+
+    @Autowired
+    private EmailIndex emailIndex;
+
+    @Value("${students.batch.size:" + DEFAULT_BATCH_SIZE + "}")
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * Validates and inserts the given students chunk by chunk, so only one chunk is held in memory.
+     * Invalid or already registered records are reported in the result and do not stop the others.
+     */
+    public BatchResultDTO saveAll(Iterator<StudentDTO> students){
+        List<BatchErrorDTO> errors = new ArrayList<>();
+        BatchResultDTO result = saveAll(students, errors::add);
+        result.setErrors(errors);
+        return result;
+    }
+
+    /**
+     * Same as {@link #saveAll(Iterator)}, handing each rejected record to {@code errors} as soon as it is
+     * known instead of collecting them. While a chunk is checked against the table and inserted, the
+     * next one is already read and validated, so at most two chunks are held in memory.
+     */
+    public BatchResultDTO saveAll(Iterator<StudentDTO> students, Consumer<BatchErrorDTO> errors){
+        BatchResultDTO result = new BatchResultDTO(0, 0, new ArrayList<>());
+        List<StudentDTO> pending = null;
+        CompletableFuture<List<List<FieldMessage>>> pendingErrors = null;
+        while(students.hasNext()){
+            List<StudentDTO> chunk = new ArrayList<>(batchSize);
+            while(students.hasNext() && chunk.size() < batchSize) chunk.add(students.next());
+            CompletableFuture<List<List<FieldMessage>>> chunkErrors = studentValidator.validateAll(chunk);
+            if(pending != null) saveChunk(pending, pendingErrors.join(), result, errors);
+            pending = chunk;
+            pendingErrors = chunkErrors;
+        }
+        if(pending != null) saveChunk(pending, pendingErrors.join(), result, errors);
+        return result;
+    }
+
+    private void saveChunk(
+            List<StudentDTO> chunk, List<List<FieldMessage>> violations, BatchResultDTO result, Consumer<BatchErrorDTO> errors
+    ){
+        long offset = result.getReceived();
+        result.setReceived(offset + chunk.size());
+        Map<String, Integer> candidates = new LinkedHashMap<>();
+        for(int i = 0; i < chunk.size(); i++){
+            StudentDTO studentDTO = chunk.get(i);
+            List<FieldMessage> studentErrors = violations.get(i);
+            if(studentErrors.isEmpty() && candidates.putIfAbsent(studentDTO.getEmail(), i) != null){
+                studentErrors.add(new FieldMessage("email", String.format(EMAIL_REPEATED, studentDTO.getEmail())));
+            }
+            if(!studentErrors.isEmpty()) errors.accept(new BatchErrorDTO(offset + i, studentDTO.getEmail(), studentErrors));
+        }
+        if(candidates.isEmpty()) return;
+        Set<String> maybeRegistered = candidates.keySet().stream()
+                .filter(emailIndex::mightContain)
+                .collect(Collectors.toSet());
+        if(!maybeRegistered.isEmpty()){
+            Set<String> registered = studentRepository.findRegisteredEmails(maybeRegistered);
+            emailIndex.falsePositives(maybeRegistered.size() - registered.size());
+            for(String email : registered){
+                int i = candidates.remove(email);
+                errors.accept(new BatchErrorDTO(offset + i, email, Collections.singletonList(
+                        new FieldMessage("email", String.format(EMAIL_ALREADY_REGISTERED, email))
+                )));
+            }
+        }
+        if(candidates.isEmpty()) return;
+        List<StudentDTO> accepted = candidates.values().stream().map(chunk::get).collect(Collectors.toList());
+        accepted.forEach(studentDTO -> studentDTO.setAttendance(0));
+        candidates.keySet().forEach(emailIndex::add);
+        Collection<String> inserted = candidates.keySet();
+        try {
+            studentJdbcRepository.insertAll(accepted, batchSize);
+        } catch (DataAccessException e){
+            if(accepted.size() > 1){
+                inserted = insertOneByOne(chunk, candidates, offset, errors);
+            } else {
+                candidates.values().forEach(i -> reject(e, offset, i, chunk, errors));
+                inserted = Collections.emptyList();
+            }
+        }
+        result.setInserted(result.getInserted() + inserted.size());
+        if(!inserted.isEmpty()) studentJdbcRepository.forEachNameByEmail(inserted, nameSearchIndex::index);
+    }
+
+    /**
+     * Inserts the students of a chunk whose batch failed one at a time, so that only those the database
+     * really rejects, e.g. on an email registered concurrently, are reported.
+     * @return the emails of the students inserted
+     */
+    private List<String> insertOneByOne(
+            List<StudentDTO> chunk, Map<String, Integer> candidates, long offset, Consumer<BatchErrorDTO> errors
+    ){
+        List<String> inserted = new ArrayList<>(candidates.size());
+        candidates.forEach((email, i) -> {
+            try {
+                studentJdbcRepository.insertAll(Collections.singletonList(chunk.get(i)), batchSize);
+                inserted.add(email);
+            } catch (DataAccessException e){
+                reject(e, offset, i, chunk, errors);
+            }
+        });
+        return inserted;
+    }
+
+    private void reject(
+            DataAccessException e, long offset, int i, List<StudentDTO> chunk, Consumer<BatchErrorDTO> errors
+    ){
+        String email = chunk.get(i).getEmail();
+        FieldMessage error = e instanceof DataIntegrityViolationException && StudentService.emailTaken((DataIntegrityViolationException) e)
+                ? new FieldMessage("email", String.format(EMAIL_ALREADY_REGISTERED, email))
+                : new FieldMessage("student", e.getMostSpecificCause().getMessage());
+        errors.accept(new BatchErrorDTO(offset + i, email, Collections.singletonList(error)));
+    }
+}
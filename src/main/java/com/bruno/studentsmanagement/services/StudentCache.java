@@ -0,0 +1,148 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-process cache of {@link StudentDTO}s addressable by id and by email.
+ * Entries are stored and handed out as copies, so callers may freely modify what they get.
+ * Every write to the cache moves its generation on, so a load that began before a write can tell and
+ * keep what it read out of the cache.
+ */
+@Component
+public class StudentCache implements MeterBinder {
+
+    private final boolean enabled;
+    private final Cache<Long, StudentDTO> studentsById;
+    private final Cache<String, Long> idsByEmail;
+    private final AtomicLong generation = new AtomicLong();
+
+    public StudentCache(
+            @Value("${students.cache.enabled:true}") boolean enabled,
+            @Value("${students.cache.maximum-size:10000}") long maximumSize,
+            @Value("${students.cache.time-to-live:5m}") Duration timeToLive
+    ){
+        this.enabled = enabled;
+        this.studentsById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        this.idsByEmail = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .build();
+    }
+
+    public boolean isEnabled(){
+        return enabled;
+    }
+
+    public Optional<StudentDTO> getById(Long id){
+        if(!enabled) return Optional.empty();
+        return Optional.ofNullable(studentsById.getIfPresent(id)).map(StudentCache::copy);
+    }
+
+    public Optional<StudentDTO> getByEmail(String email){
+        if(!enabled) return Optional.empty();
+        Long id = idsByEmail.getIfPresent(email);
+        if(id == null) return Optional.empty();
+        StudentDTO studentDTO = studentsById.getIfPresent(id);
+        if(studentDTO == null || !email.equals(studentDTO.getEmail())){
+            idsByEmail.invalidate(email);
+            return Optional.empty();
+        }
+        return Optional.of(copy(studentDTO));
+    }
+
+    /**
+     * Generation to hand to {@link #putIfUnchanged} for a student about to be loaded.
+     */
+    public long generation(){
+        return generation.get();
+    }
+
+    /**
+     * Caches a student as just written.
+     */
+    public void put(StudentDTO studentDTO){
+        if(!enabled) return;
+        generation.incrementAndGet();
+        store(studentDTO);
+    }
+
+    /**
+     * Caches a student as loaded, unless the cache was written since {@code loadGeneration}: the load may then
+     * have read the row as it was before that write.
+     */
+    public void putIfUnchanged(StudentDTO studentDTO, long loadGeneration){
+        if(!enabled || generation.get() != loadGeneration) return;
+        StudentDTO stored = store(studentDTO);
+        if(generation.get() != loadGeneration) studentsById.asMap().remove(studentDTO.getId(), stored);
+    }
+
+    public void evict(Long id){
+        if(!enabled) return;
+        generation.incrementAndGet();
+        StudentDTO previous = studentsById.asMap().remove(id);
+        if(previous != null) idsByEmail.invalidate(previous.getEmail());
+    }
+
+    public void evictByEmail(String email){
+        if(!enabled) return;
+        generation.incrementAndGet();
+        Long id = idsByEmail.asMap().remove(email);
+        if(id != null) studentsById.invalidate(id);
+    }
+
+    public void clear(){
+        generation.incrementAndGet();
+        studentsById.invalidateAll();
+        idsByEmail.invalidateAll();
+    }
+
+    private StudentDTO store(StudentDTO studentDTO){
+        StudentDTO stored = copy(studentDTO);
+        StudentDTO previous = studentsById.asMap().put(studentDTO.getId(), stored);
+        if(previous != null && !previous.getEmail().equals(studentDTO.getEmail())) idsByEmail.invalidate(previous.getEmail());
+        idsByEmail.put(studentDTO.getEmail(), studentDTO.getId());
+        return stored;
+    }
+
+    public CacheStats stats(){
+        return studentsById.stats();
+    }
+
+    public long size(){
+        return studentsById.estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry){
+        new CaffeineCacheMetrics(studentsById, "students", Tags.empty()).bindTo(registry);
+    }
+
+    static StudentDTO copy(StudentDTO studentDTO){
+        return new StudentDTO(
+                studentDTO.getId(),
+                studentDTO.getName(),
+                studentDTO.getBirthDate(),
+                studentDTO.getEmail(),
+                studentDTO.getPhone(),
+                studentDTO.getAttendance(),
+                studentDTO.getVersion()
+        );
+    }
+}
@@ -0,0 +1,85 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import com.bruno.studentsmanagement.services.exceptions.InvalidImportException;
+import com.bruno.studentsmanagement.utils.CsvParser;
+import com.bruno.studentsmanagement.utils.DateConverterUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+/**
+ * Students read one CSV record at a time. Columns are matched by the header names used in the
+ * export (name, birthDate, email, phone, in any order, other columns ignored), after dropping the
+ * byte order mark some spreadsheets write. A value that cannot be converted is left empty, so bean
+ * validation reports it for that row; so is every value of a record cut off inside a quoted field.
+ */
+public class StudentCsvReader implements Iterator<StudentDTO> {
+
+    private static final List<String> COLUMNS = List.of("name", "birthDate", "email", "phone");
+    private static final String BYTE_ORDER_MARK = "\uFEFF";
+
+    private final CsvParser parser;
+    private final int[] columns = new int[COLUMNS.size()];
+    private List<String> next;
+
+    /**
+     * @throws InvalidImportException when the header lacks one of the student columns
+     */
+    public StudentCsvReader(InputStream inputStream){
+        parser = new CsvParser(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        List<String> header = read();
+        List<String> names = header == null ? List.of() : header.stream().map(String::trim).collect(Collectors.toList());
+        if(!names.isEmpty() && names.get(0).startsWith(BYTE_ORDER_MARK)) names.set(0, names.get(0).substring(1).trim());
+        for(int i = 0; i < columns.length; i++){
+            columns[i] = names.indexOf(COLUMNS.get(i));
+            if(columns[i] < 0) throw new InvalidImportException(COLUMNS);
+        }
+        next = read();
+    }
+
+    @Override
+    public boolean hasNext(){
+        return next != null;
+    }
+
+    @Override
+    public StudentDTO next(){
+        if(next == null) throw new NoSuchElementException();
+        List<String> record = next;
+        next = read();
+        String birthDate = field(record, 1);
+        return new StudentDTO(
+                null,
+                field(record, 0),
+                birthDate == null ? null : DateConverterUtil.convertDate(birthDate),
+                field(record, 2),
+                field(record, 3),
+                null, null
+        );
+    }
+
+    private String field(List<String> record, int column){
+        int index = columns[column];
+        return index < record.size() ? record.get(index).trim() : null;
+    }
+
+    private List<String> read(){
+        try {
+            List<String> record = parser.next();
+            while(record != null && record.size() == 1 && record.get(0).isBlank() && !parser.isUnterminated()){
+                record = parser.next();
+            }
+            return parser.isUnterminated() ? List.of() : record;
+        } catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+}
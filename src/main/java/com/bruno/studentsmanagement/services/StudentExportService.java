@@ -0,0 +1,133 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import com.bruno.studentsmanagement.repositories.StudentJdbcRepository;
+import com.bruno.studentsmanagement.services.exceptions.UnsupportedFormatException;
+import com.bruno.studentsmanagement.utils.DateConverterUtil;
+import com.bruno.studentsmanagement.utils.StudentJson;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Writes the whole student table as CSV or NDJSON while it is read from the database,
+ * one row at a time, so memory use does not grow with the table.
+ */
+@Service
+public class StudentExportService {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension){
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public String getMediaType(){
+            return mediaType;
+        }
+
+        public String getExtension(){
+            return extension;
+        }
+
+        public static Format of(String format){
+            return Arrays.stream(values())
+                    .filter(value -> value.extension.equals(format.toLowerCase(Locale.ROOT)))
+                    .findFirst()
+                    .orElseThrow(() -> new UnsupportedFormatException(format, values()));
+        }
+    }
+
+    static final String CSV_HEADER = "id,name,birthDate,email,phone,attendance\n";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private StudentJdbcRepository studentJdbcRepository;
+
+    @Autowired
+    private StudentJson studentJson;
+
+    @Timed(value = "students.service", extraTags = {"operation", "exportAll"})
+    public void exportAll(Format format, OutputStream outputStream) throws IOException {
+        if(format == Format.CSV){
+            exportCsv(outputStream);
+        } else {
+            exportNdjson(outputStream);
+        }
+    }
+
+    private void exportCsv(OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write(CSV_HEADER);
+        studentJdbcRepository.forEachStudent(student -> {
+            try {
+                writeCsv(writer, student);
+            } catch (IOException e){
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private void exportNdjson(OutputStream outputStream) throws IOException {
+        ObjectWriter writer = studentJson.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = studentJson.mapper().getFactory().createGenerator(outputStream);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        studentJdbcRepository.forEachStudent(student -> {
+            try {
+                writer.writeValue(generator, student);
+                generator.writeRaw('\n');
+            } catch (IOException e){
+                throw new UncheckedIOException(e);
+            }
+        });
+        generator.close();
+    }
+
+    private static void writeCsv(Writer writer, StudentDTO student) throws IOException {
+        writer.write(String.valueOf(student.getId()));
+        writer.write(',');
+        writeCsvField(writer, student.getName());
+        writer.write(',');
+        DateConverterUtil.DATE_FORMATTER.formatTo(student.getBirthDate(), writer);
+        writer.write(',');
+        writeCsvField(writer, student.getEmail());
+        writer.write(',');
+        writeCsvField(writer, student.getPhone());
+        writer.write(',');
+        writer.write(String.valueOf(student.getAttendance()));
+        writer.write('\n');
+    }
+
+    /** RFC 4180: fields holding a separator, quote or line break are quoted, with quotes doubled. */
+    static void writeCsvField(Writer writer, String field) throws IOException {
+        if(field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0){
+            writer.write(field);
+            return;
+        }
+        writer.write('"');
+        writer.write(field.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -1,109 +1,409 @@
 package com.bruno.studentsmanagement.services;
 
+import com.bruno.studentsmanagement.dto.CursorPageDTO;
 import com.bruno.studentsmanagement.dto.StudentDTO;
 import com.bruno.studentsmanagement.entities.Student;
+import com.bruno.studentsmanagement.repositories.StudentJdbcRepository;
 import com.bruno.studentsmanagement.repositories.StudentRepository;
 import com.bruno.studentsmanagement.services.exceptions.EmailAlreadyRegisteredException;
 import com.bruno.studentsmanagement.services.exceptions.StudentInconsistencyException;
+import com.bruno.studentsmanagement.services.exceptions.StudentModifiedException;
 import com.bruno.studentsmanagement.services.exceptions.StudentNotFoundException;
+import com.bruno.studentsmanagement.services.exceptions.UnknownFieldException;
+import com.bruno.studentsmanagement.utils.SingleFlight;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
-public class StudentService {
+public class StudentService implements MeterBinder {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int DEFAULT_SEARCH_SIZE = 20;
+    public static final int MAX_SEARCH_SIZE = 100;
+    public static final List<String> FIELDS = List.of("id", "name", "birthDate", "email", "phone", "attendance");
 
     @Autowired
     private StudentRepository studentRepository;
 
+    @Autowired
+    private StudentJdbcRepository studentJdbcRepository;
+
+    @Autowired
+    private StudentCache studentCache;
+
+    @Autowired
+    private AttendanceCounter attendanceCounter;
+
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+
+    @Autowired
+    private EmailIndex emailIndex;
+
+    @Value("${students.attendance.read-your-writes:true}")
+    private boolean readYourWrites = true;
+
+    @Value("${students.single-flight.enabled:true}")
+    private boolean singleFlight = true;
+
+    private final SingleFlight<List<Object>, Optional<StudentDTO>> findById = new SingleFlight<>("findById");
+    private final SingleFlight<List<Object>, Optional<StudentDTO>> findByEmail = new SingleFlight<>("findByEmail");
+    private final SingleFlight<List<Object>, List<StudentDTO>> findByName = new SingleFlight<>("findByNameContainingIgnoreCase");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Timed(value = "students.service", extraTags = {"operation", "save"})
     public StudentDTO save(StudentDTO studentDTO){
-        checkStudentEmail(studentDTO.getEmail());
         Student student = fromDTO(studentDTO);
-        student = studentRepository.save(student);
-        return new StudentDTO(student);
+        student = unique(studentDTO.getEmail(), () -> studentRepository.save(student));
+        return index(cache(new StudentDTO(student)));
     }
 
-    public List<StudentDTO> findAll(){
-        return studentRepository.findAll().stream().map(StudentDTO::new).collect(Collectors.toList());
+    @Timed(value = "students.service", extraTags = {"operation", "findAll"})
+    public CursorPageDTO<StudentDTO> findAll(Long after, Integer limit){
+        int size = pageSize(limit);
+        List<StudentDTO> students = studentRepository.findDTOByIdGreaterThan(
+                after == null ? 0L : after, PageRequest.of(0, size + 1)
+        );
+        if(students.size() <= size) return new CursorPageDTO<>(students, null);
+        List<StudentDTO> content = new ArrayList<>(students.subList(0, size));
+        return new CursorPageDTO<>(content, content.get(size - 1).getId());
     }
 
+    /**
+     * Same page as {@link #findAll(Long, Integer)}, selecting only the comma separated fields given.
+     * The id is always selected, as it is the cursor.
+     */
+    @Timed(value = "students.service", extraTags = {"operation", "findAllFields"})
+    public CursorPageDTO<Map<String, Object>> findAll(Long after, Integer limit, String fields){
+        int size = pageSize(limit);
+        List<Map<String, Object>> students = studentRepository.findFieldsByIdGreaterThan(
+                fields(fields), after == null ? 0L : after, size + 1
+        );
+        if(students.size() <= size) return new CursorPageDTO<>(students, null);
+        List<Map<String, Object>> content = new ArrayList<>(students.subList(0, size));
+        return new CursorPageDTO<>(content, (Long) content.get(size - 1).get("id"));
+    }
+
+    @Timed(value = "students.service", extraTags = {"operation", "streamAll"})
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<StudentDTO> consumer){
+        try (Stream<Student> students = studentRepository.streamAll()) {
+            students.forEach(student -> {
+                consumer.accept(new StudentDTO(student));
+                entityManager.detach(student);
+            });
+        }
+    }
+
+    @Timed(value = "students.service", extraTags = {"operation", "findById"})
     public StudentDTO findById(Long id){
-        Student student = studentRepository.findById(id).orElseThrow(() -> new StudentNotFoundException(id));
-        return new StudentDTO(student);
+        return withPendingAttendance(() -> loadById(id));
     }
 
+    @Timed(value = "students.service", extraTags = {"operation", "findByEmail"})
     public StudentDTO findByEmail(String email){
-        Student student = studentRepository.findByEmail(email).orElseThrow(() -> new StudentNotFoundException(email));
-        return new StudentDTO(student);
+        return withPendingAttendance(() -> loadByEmail(email));
     }
 
+    @Timed(value = "students.service", extraTags = {"operation", "deleteById"})
     public void deleteById(Long id){
-        findById(id);
-        studentRepository.deleteById(id);
+        if(studentRepository.deleteStudentById(id) == 0) throw new StudentNotFoundException(id);
+        studentCache.evict(id);
+        attendanceCounter.discard(id);
+        nameSearchIndex.remove(id);
     }
 
+    /**
+     * Deletes with a single statement. The id is only known when the student is cached, otherwise its
+     * pending attendance is dropped by the next flush and its index entry is pruned by the next search.
+     */
+    @Timed(value = "students.service", extraTags = {"operation", "deleteByEmail"})
     public void deleteByEmail(String email){
-        StudentDTO studentDTO = findByEmail(email);
-        studentRepository.deleteByEmail(studentDTO.getEmail());
+        Optional<Long> id = studentCache.getByEmail(email).map(StudentDTO::getId);
+        if(studentRepository.deleteByEmail(email) == 0) throw new StudentNotFoundException(email);
+        studentCache.evictByEmail(email);
+        id.ifPresent(attendanceCounter::discard);
+        id.ifPresent(nameSearchIndex::remove);
     }
 
+    /**
+     * Updates with a single statement, the unique constraint guarding the email, and reads the student back
+     * as stored in the same transaction: its id, its new version and, when none is given, the attendance it keeps. A version
+     * on the given student makes the update conditional on it. Only a failed update reads again, to tell a
+     * missing student from a modified one.
+     */
+    @Timed(value = "students.service", extraTags = {"operation", "updateById"})
     public StudentDTO updateById(Long id, StudentDTO studentDTO){
-        StudentDTO savedStudent = findById(id);
-        if(!studentDTO.getEmail().equals(savedStudent.getEmail())) checkStudentEmail(studentDTO.getEmail());
-        studentDTO.setId(id);
-        if(studentDTO.getAttendance() == null) studentDTO.setAttendance(savedStudent.getAttendance());
-        Student student = fromDTO(studentDTO);
-        return new StudentDTO(studentRepository.save(student));
+        return overwriting(studentDTO, () -> {
+            studentDTO.setId(id);
+            Optional<StudentDTO> updated = unique(studentDTO.getEmail(), () -> studentJdbcRepository.update(studentDTO, false));
+            if(updated.isEmpty()){
+                if(studentDTO.getVersion() != null && studentRepository.existsById(id)){
+                    throw new StudentModifiedException(id, studentDTO.getVersion());
+                }
+                throw new StudentNotFoundException(id);
+            }
+            return index(cache(updated.get()));
+        });
     }
 
+    @Timed(value = "students.service", extraTags = {"operation", "updateByEmail"})
     public StudentDTO updateByEmail(StudentDTO studentDTO){
-        StudentDTO savedStudent = findByEmail(studentDTO.getEmail());
-        studentDTO.setId(savedStudent.getId());
-        if(!studentDTO.getEmail().equals(savedStudent.getEmail())) checkStudentEmail(studentDTO.getEmail());
-        if(studentDTO.getAttendance() == null) studentDTO.setAttendance(savedStudent.getAttendance());
-        Student student = fromDTO(studentDTO);
-        return new StudentDTO(studentRepository.save(student));
+        return overwriting(studentDTO, () -> {
+            Optional<StudentDTO> updated = studentJdbcRepository.update(studentDTO, true);
+            if(updated.isEmpty()){
+                if(studentDTO.getVersion() != null && registered(studentDTO.getEmail())){
+                    throw new StudentModifiedException(studentDTO.getEmail(), studentDTO.getVersion());
+                }
+                throw new StudentNotFoundException(studentDTO.getEmail());
+            }
+            return index(cache(updated.get()));
+        });
     }
 
-    public StudentDTO updateEmail(Long id, String email, String newEmail){
-        StudentDTO studentDTO = findById(id);
-        if(!studentDTO.getEmail().equals(email)) throw new StudentInconsistencyException(email, id);
-        studentDTO.setEmail(newEmail);
-        Student student = fromDTO(studentDTO);
-        student = studentRepository.save(student);
-        return new StudentDTO(student);
+    /**
+     * Changes the email with a single statement, then reads the student back as stored, new version included.
+     * Only a failed change reads the student, to tell which of its id, email or version did not match.
+     */
+    @Timed(value = "students.service", extraTags = {"operation", "updateEmail"})
+    public StudentDTO updateEmail(Long id, String email, String newEmail, Long version){
+        Optional<StudentDTO> updated = unique(newEmail, () -> studentJdbcRepository.updateEmail(id, email, newEmail, version));
+        if(updated.isEmpty()){
+            Student student = studentRepository.findById(id).orElseThrow(() -> new StudentNotFoundException(id));
+            if(version == null || !student.getEmail().equals(email)) throw new StudentInconsistencyException(email, id);
+            throw new StudentModifiedException(id, version);
+        }
+        return cache(updated.get());
     }
 
+    @Timed(value = "students.service", extraTags = {"operation", "increaseAttendance"})
     public StudentDTO increaseAttendance(Long id){
-        Student student = studentRepository.findById(id).orElseThrow(() -> new StudentNotFoundException(id));
-        student.setAttendance(student.getAttendance() + 1);
-        return new StudentDTO(studentRepository.save(student));
+        attendanceCounter.increment(id);
+        try {
+            return attendanceCounter.read(() -> withPending(loadById(id)));
+        } catch (StudentNotFoundException e){
+            attendanceCounter.discard(id);
+            throw e;
+        }
     }
 
-    public List<StudentDTO> findByNameContainingIgnoreCase(String name){
-        return studentRepository.findByNameContainingIgnoreCase(name)
+    /**
+     * Concurrent identical searches share one lookup, each caller getting its own copy of the students.
+     * As with the loads by id, a search arriving after a write does not join one started before it.
+     */
+    @Timed(value = "students.service", extraTags = {"operation", "findByNameContainingIgnoreCase"})
+    public List<StudentDTO> findByNameContainingIgnoreCase(String name, Pageable pageable){
+        int size = Math.min(pageable.getPageSize(), MAX_SEARCH_SIZE);
+        List<Object> key = List.of(String.valueOf(name), pageable.getPageNumber(), size, studentCache.generation());
+        return coalesce(findByName, key, () -> search(name, pageable.getPageNumber(), size))
                 .stream()
-                .map(StudentDTO::new)
+                .map(StudentCache::copy)
                 .collect(Collectors.toList());
     }
 
-    private Optional<Void> checkStudentEmail(String email){
-        Optional<Student> student = studentRepository.findByEmail(email);
-        if(student.isPresent()) throw new EmailAlreadyRegisteredException(email);
-        return null;
+    private List<StudentDTO> search(String name, int page, int size){
+        if(!nameSearchIndex.isReady()){
+            return studentRepository.findDTOByNameContainingIgnoreCase(name, PageRequest.of(page, size));
+        }
+        List<Long> ids = nameSearchIndex.search(name, (long) page * size, size);
+        if(ids.isEmpty()) return List.of();
+        Map<Long, StudentDTO> students = studentRepository.findDTOByIdIn(ids)
+                .stream()
+                .collect(Collectors.toMap(StudentDTO::getId, Function.identity()));
+        ids.stream().filter(id -> !students.containsKey(id)).forEach(nameSearchIndex::remove);
+        return ids.stream()
+                .filter(students::containsKey)
+                .map(students::get)
+                .collect(Collectors.toList());
+    }
+
+    @Timed(value = "students.service", extraTags = {"operation", "findByNameContainingIgnoreCaseFields"})
+    public List<Map<String, Object>> findByNameContainingIgnoreCase(String name, Pageable pageable, String fields){
+        int size = Math.min(pageable.getPageSize(), MAX_SEARCH_SIZE);
+        List<String> selected = fields(fields);
+        if(!nameSearchIndex.isReady()){
+            return studentRepository.findFieldsByNameContainingIgnoreCase(selected, name, PageRequest.of(pageable.getPageNumber(), size));
+        }
+        List<Long> ids = nameSearchIndex.search(name, (long) pageable.getPageNumber() * size, size);
+        Map<Long, Map<String, Object>> students = studentRepository.findFieldsByIdIn(selected, ids)
+                .stream()
+                .collect(Collectors.toMap(student -> (Long) student.get("id"), Function.identity()));
+        ids.stream().filter(id -> !students.containsKey(id)).forEach(nameSearchIndex::remove);
+        return ids.stream()
+                .filter(students::containsKey)
+                .map(students::get)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * On a cache miss, concurrent loads of the same student share one query. Each caller gets its own
+     * copy, as the student is modified afterwards, e.g. with the pending attendance. Loads only share a
+     * query within one cache generation: one arriving after a write starts a new query rather than join
+     * one that may have read the row before it, and what an older query read is not cached.
+     */
+    private StudentDTO loadById(Long id){
+        return studentCache.getById(id).orElseGet(() -> {
+            long generation = studentCache.generation();
+            return cache(
+                    coalesce(findById, List.of(id, generation), () -> studentRepository.findDTOById(id))
+                            .map(StudentCache::copy)
+                            .orElseThrow(() -> new StudentNotFoundException(id)),
+                    generation
+            );
+        });
+    }
+
+    private StudentDTO loadByEmail(String email){
+        return studentCache.getByEmail(email).orElseGet(() -> {
+            long generation = studentCache.generation();
+            return cache(
+                    coalesce(findByEmail, List.of(email, generation), () -> studentRepository.findDTOByEmail(email))
+                            .map(StudentCache::copy)
+                            .orElseThrow(() -> new StudentNotFoundException(email)),
+                    generation
+            );
+        });
+    }
+
+    private <K, V> V coalesce(SingleFlight<K, V> flight, K key, Supplier<V> call){
+        return singleFlight ? flight.execute(key, call) : call.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry){
+        findById.bindTo(registry);
+        findByEmail.bindTo(registry);
+        findByName.bindTo(registry);
+    }
+
+    private StudentDTO withPendingAttendance(Supplier<StudentDTO> load){
+        if(!readYourWrites) return load.get();
+        return attendanceCounter.read(() -> withPending(load.get()));
+    }
+
+    private StudentDTO withPending(StudentDTO studentDTO){
+        long pending = attendanceCounter.pending(studentDTO.getId());
+        if(pending != 0) studentDTO.setAttendance(Math.toIntExact(studentDTO.getAttendance() + pending));
+        return studentDTO;
+    }
+
+    /**
+     * Runs an update that sets the attendance outright, if it does, so that the increments still pending
+     * for the student are dropped rather than added on top of it by the next flush.
+     */
+    private StudentDTO overwriting(StudentDTO studentDTO, Supplier<StudentDTO> update){
+        if(studentDTO.getAttendance() == null) return update.get();
+        return attendanceCounter.overwrite(() -> {
+            StudentDTO updated = update.get();
+            attendanceCounter.discard(updated.getId());
+            return updated;
+        });
+    }
+
+    private StudentDTO index(StudentDTO studentDTO){
+        nameSearchIndex.index(studentDTO.getId(), studentDTO.getName());
+        return studentDTO;
+    }
+
+    private StudentDTO cache(StudentDTO studentDTO){
+        studentCache.put(studentDTO);
+        return studentDTO;
+    }
+
+    private StudentDTO cache(StudentDTO studentDTO, long generation){
+        studentCache.putIfUnchanged(studentDTO, generation);
+        return studentDTO;
+    }
+
+    static List<String> fields(String fields){
+        Set<String> requested = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toSet());
+        requested.stream()
+                .filter(field -> !FIELDS.contains(field))
+                .findFirst()
+                .ifPresent(field -> {
+                    throw new UnknownFieldException(field, FIELDS);
+                });
+        return FIELDS.stream()
+                .filter(field -> field.equals("id") || requested.contains(field))
+                .collect(Collectors.toList());
+    }
+
+    static int pageSize(Integer limit){
+        if(limit == null || limit < 1) return DEFAULT_PAGE_SIZE;
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private boolean registered(String email){
+        if(!emailIndex.mightContain(email)) return false;
+        boolean registered = studentRepository.existsByEmail(email);
+        if(!registered) emailIndex.falsePositives(1);
+        return registered;
+    }
+
+    /**
+     * Adds the email to the index before writing it, so the index never misses a stored email.
+     * Only a violation of the email's unique key means the email is taken; any other is rethrown.
+     */
+    private <T> T unique(String email, Supplier<T> write){
+        emailIndex.add(email);
+        try {
+            return write.get();
+        } catch (DataIntegrityViolationException e){
+            if(emailTaken(e)) throw new EmailAlreadyRegisteredException(email);
+            throw e;
+        }
+    }
+
+    /**
+     * Whether the violation is of the email's unique key, whose name the database reports in the message
+     * of the exception or of one of its causes.
+     */
+    static boolean emailTaken(DataIntegrityViolationException e){
+        for(Throwable cause = e; cause != null; cause = cause.getCause()){
+            String message = cause.getMessage();
+            if(message != null && message.toLowerCase(Locale.ROOT).contains(Student.EMAIL_CONSTRAINT)) return true;
+        }
+        return false;
     }
 
-    private Student fromDTO(StudentDTO studentDTO){
+    static Student fromDTO(StudentDTO studentDTO){
         return new Student(
                 studentDTO.getId(),
                 studentDTO.getName(),
                 studentDTO.getBirthDate(),
                 studentDTO.getEmail(),
                 studentDTO.getPhone(),
-                studentDTO.getAttendance()
+                studentDTO.getAttendance(),
+                studentDTO.getVersion()
         );
     }
 
@@ -0,0 +1,85 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import com.bruno.studentsmanagement.exceptions.FieldMessage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Applies the StudentDTO constraints to a chunk of students, split into contiguous slices validated
+ * by {@code students.import.parallelism} workers (0 means one per available processor, 1 validates
+ * inline on the caller's thread).
+ */
+@Component
+public class StudentValidator implements MeterBinder, DisposableBean {
+
+    private final Validator validator;
+    private final int parallelism;
+    private final ThreadPoolExecutor executor;
+
+    public StudentValidator(Validator validator, @Value("${students.import.parallelism:0}") int parallelism){
+        this.validator = validator;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.executor = this.parallelism > 1
+                ? new ThreadPoolExecutor(
+                        this.parallelism, this.parallelism, 0L, TimeUnit.MILLISECONDS,
+                        new LinkedBlockingQueue<>(),
+                        new CustomizableThreadFactory("students-validation-"))
+                : null;
+    }
+
+    /**
+     * @return the constraint violations of every student, in the order of the chunk
+     */
+    public CompletableFuture<List<List<FieldMessage>>> validateAll(List<StudentDTO> students){
+        if(executor == null) return CompletableFuture.completedFuture(validate(students));
+        int sliceSize = (students.size() + parallelism - 1) / parallelism;
+        List<CompletableFuture<List<List<FieldMessage>>>> slices = new ArrayList<>(parallelism);
+        for(int from = 0; from < students.size(); from += sliceSize){
+            List<StudentDTO> slice = students.subList(from, Math.min(from + sliceSize, students.size()));
+            slices.add(CompletableFuture.supplyAsync(() -> validate(slice), executor));
+        }
+        return CompletableFuture.allOf(slices.toArray(new CompletableFuture[0]))
+                .thenApply(done -> slices.stream()
+                        .flatMap(slice -> slice.join().stream())
+                        .collect(Collectors.toList()));
+    }
+
+    private List<List<FieldMessage>> validate(List<StudentDTO> students){
+        List<List<FieldMessage>> errors = new ArrayList<>(students.size());
+        for(StudentDTO studentDTO : students){
+            List<FieldMessage> studentErrors = new ArrayList<>();
+            for(ConstraintViolation<StudentDTO> violation : validator.validate(studentDTO)){
+                studentErrors.add(new FieldMessage(violation.getPropertyPath().toString(), violation.getMessage()));
+            }
+            errors.add(studentErrors);
+        }
+        return errors;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry){
+        if(executor != null) new ExecutorServiceMetrics(executor, "students.validation", Tags.empty()).bindTo(registry);
+    }
+
+    @Override
+    public void destroy(){
+        if(executor != null) executor.shutdown();
+    }
+}
@@ -0,0 +1,340 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import com.bruno.studentsmanagement.dto.WriteStatusDTO;
+import com.bruno.studentsmanagement.dto.WriteStatusDTO.Operation;
+import com.bruno.studentsmanagement.dto.WriteStatusDTO.Status;
+import com.bruno.studentsmanagement.repositories.StudentJdbcRepository;
+import com.bruno.studentsmanagement.services.exceptions.EmailAlreadyRegisteredException;
+import com.bruno.studentsmanagement.services.exceptions.StudentModifiedException;
+import com.bruno.studentsmanagement.services.exceptions.StudentNotFoundException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind path for student creates and updates. Accepted writes wait in a bounded lock-free queue
+ * and a single drain thread applies them in groups of up to {@code students.write-behind.batch-size},
+ * as JDBC batches within one transaction. When a group fails, e.g. on a duplicated email, its writes are
+ * retried one by one so only the offending ones fail. Writes are applied in the order they were accepted,
+ * each run of consecutive writes of one operation as a single JDBC batch.
+ * The outcome of each write is kept for {@code students.write-behind.status-retention}, under the
+ * tracking id returned when it was accepted. Once {@code students.write-behind.queue-capacity} writes
+ * are waiting, further ones are rejected so clients back off. Writes giving an attendance replace the
+ * increments still pending for the student, as synchronous updates do.
+ */
+@Slf4j
+@Component
+public class StudentWriteBehind implements MeterBinder, InitializingBean, DisposableBean {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final int capacity;
+    private final int batchSize;
+    private final Queue<Write> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final Cache<String, WriteStatusDTO> statuses;
+    private final LongAdder done = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final Thread drainer = new Thread(this::drain, "students-write-behind");
+    private volatile boolean running = true;
+    private volatile DistributionSummary batchSizes;
+
+    @Autowired
+    private StudentJdbcRepository studentJdbcRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private StudentCache studentCache;
+
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+
+    @Autowired
+    private EmailIndex emailIndex;
+
+    @Autowired
+    private AttendanceCounter attendanceCounter;
+
+    public StudentWriteBehind(
+            @Value("${students.write-behind.queue-capacity:10000}") int capacity,
+            @Value("${students.write-behind.batch-size:500}") int batchSize,
+            @Value("${students.write-behind.status-retention:10m}") Duration statusRetention
+    ){
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(Math.max(capacity, 100_000))
+                .expireAfterWrite(statusRetention)
+                .build();
+        this.drainer.setDaemon(true);
+    }
+
+    /**
+     * @throws RejectedExecutionException when the queue is full
+     */
+    public WriteStatusDTO enqueue(Operation operation, StudentDTO studentDTO){
+        if(depth.incrementAndGet() > capacity){
+            depth.decrementAndGet();
+            rejected.increment();
+            throw new RejectedExecutionException("The write-behind queue is full");
+        }
+        WriteStatusDTO status = new WriteStatusDTO(UUID.randomUUID().toString(), operation, Status.PENDING, studentDTO.getId(), null);
+        statuses.put(status.getId(), status);
+        queue.offer(new Write(status, studentDTO));
+        LockSupport.unpark(drainer);
+        return status;
+    }
+
+    public Optional<WriteStatusDTO> status(String id){
+        return Optional.ofNullable(statuses.getIfPresent(id));
+    }
+
+    public int depth(){
+        return depth.get();
+    }
+
+    /**
+     * Applies the next group of waiting writes.
+     * @return the number of writes applied, 0 when none was waiting
+     */
+    int drainBatch(){
+        List<Write> batch = new ArrayList<>(batchSize);
+        Write write;
+        while(batch.size() < batchSize && (write = queue.poll()) != null) batch.add(write);
+        if(batch.isEmpty()) return 0;
+        depth.addAndGet(-batch.size());
+        if(batchSizes != null) batchSizes.record(batch.size());
+        try {
+            attendanceCounter.overwrite(() -> {
+                List<Write> written = new ArrayList<>(batch.size());
+                try {
+                    written.addAll(apply(batch));
+                } catch (RuntimeException e){
+                    if(batch.size() == 1) fail(batch.get(0), e);
+                    else batch.forEach(single -> {
+                        try {
+                            written.addAll(apply(Collections.singletonList(single)));
+                        } catch (RuntimeException singleException){
+                            fail(single, singleException);
+                        }
+                    });
+                }
+                if(!written.isEmpty()) complete(written);
+                return written;
+            });
+        } catch (Throwable e){
+            batch.stream()
+                    .filter(pending -> status(pending.status.getId()).map(WriteStatusDTO::getStatus).orElse(null) == Status.PENDING)
+                    .forEach(pending -> fail(pending, String.valueOf(e)));
+            throw e;
+        }
+        return batch.size();
+    }
+
+    /**
+     * Keeps draining whatever a batch throws, even an Error: the writes still pending in that batch are
+     * failed by {@link #drainBatch()}, the next ones get their chance.
+     */
+    private void drain(){
+        while(running || !queue.isEmpty()){
+            try {
+                if(drainBatch() == 0) LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            } catch (Throwable e){
+                log.error("Write-behind batch failed", e);
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Applies the writes in one transaction and in their order, failing the updates that matched no student.
+     * @return the writes applied
+     */
+    private List<Write> apply(List<Write> batch){
+        List<List<Write>> runs = runs(batch);
+        batch.stream()
+                .filter(write -> write.status.getOperation() != Operation.UPDATE_BY_EMAIL)
+                .forEach(write -> emailIndex.add(write.student.getEmail()));
+        List<int[]> counts = transactionTemplate.execute(status -> {
+            List<int[]> runCounts = new ArrayList<>(runs.size());
+            for(List<Write> run : runs){
+                switch (run.get(0).status.getOperation()){
+                    case SAVE:
+                        studentJdbcRepository.insertAll(students(run), batchSize);
+                        runCounts.add(null);
+                        break;
+                    case UPDATE_BY_ID:
+                        runCounts.add(studentJdbcRepository.updateAll(students(run), false, batchSize));
+                        break;
+                    default:
+                        runCounts.add(studentJdbcRepository.updateAll(students(run), true, batchSize));
+                }
+            }
+            return runCounts;
+        });
+        List<Write> written = new ArrayList<>(batch.size());
+        for(int r = 0; r < runs.size(); r++){
+            List<Write> run = runs.get(r);
+            for(int i = 0; i < run.size(); i++){
+                Write write = run.get(i);
+                if(counts.get(r) == null || counts.get(r)[i] != 0) written.add(write);
+                else fail(write, notUpdated(write));
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Splits the writes wherever the operation changes, keeping their order.
+     */
+    private static List<List<Write>> runs(List<Write> batch){
+        List<List<Write>> runs = new ArrayList<>();
+        List<Write> run = null;
+        for(Write write : batch){
+            if(run == null || run.get(0).status.getOperation() != write.status.getOperation()){
+                run = new ArrayList<>();
+                runs.add(run);
+            }
+            run.add(write);
+        }
+        return runs;
+    }
+
+    private static String notUpdated(Write write){
+        StudentDTO student = write.student;
+        if(write.status.getOperation() == Operation.UPDATE_BY_ID){
+            return student.getVersion() == null
+                    ? new StudentNotFoundException(student.getId()).getMessage()
+                    : new StudentModifiedException(student.getId(), student.getVersion()).getMessage();
+        }
+        return student.getVersion() == null
+                ? new StudentNotFoundException(student.getEmail()).getMessage()
+                : new StudentModifiedException(student.getEmail(), student.getVersion()).getMessage();
+    }
+
+    private void complete(List<Write> written){
+        Map<String, Long> ids;
+        try {
+            ids = studentJdbcRepository.findIdsByEmail(
+                    written.stream().map(write -> write.student.getEmail()).collect(Collectors.toSet())
+            );
+        } catch (DataAccessException e){
+            ids = Collections.emptyMap();
+        }
+        for(Write write : written){
+            Long id = ids.get(write.student.getEmail());
+            if(id != null){
+                studentCache.evict(id);
+                nameSearchIndex.index(id, write.student.getName());
+                if(write.student.getAttendance() != null) attendanceCounter.discard(id);
+            }
+            studentCache.evictByEmail(write.student.getEmail());
+            complete(write, Status.DONE, id, null);
+            done.increment();
+        }
+    }
+
+    private void fail(Write write, RuntimeException e){
+        if(e instanceof DataIntegrityViolationException && StudentService.emailTaken((DataIntegrityViolationException) e)){
+            fail(write, new EmailAlreadyRegisteredException(write.student.getEmail()).getMessage());
+        } else if(e instanceof DataAccessException){
+            fail(write, ((DataAccessException) e).getMostSpecificCause().getMessage());
+        } else {
+            fail(write, e.getMessage());
+        }
+    }
+
+    private void fail(Write write, String message){
+        complete(write, Status.FAILED, write.status.getStudentId(), message);
+        failed.increment();
+    }
+
+    private void complete(Write write, Status status, Long studentId, String message){
+        WriteStatusDTO pending = write.status;
+        statuses.put(pending.getId(), new WriteStatusDTO(pending.getId(), pending.getOperation(), status, studentId, message));
+    }
+
+    private static List<StudentDTO> students(List<Write> writes){
+        return writes.stream().map(write -> write.student).collect(Collectors.toList());
+    }
+
+    @Override
+    public void afterPropertiesSet(){
+        drainer.start();
+    }
+
+    /**
+     * Lets the drain thread apply every write still waiting before it stops.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(drainer);
+        drainer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry){
+        Gauge.builder("students.write.behind.queue", depth, AtomicInteger::get)
+                .description("Writes accepted and not yet applied")
+                .register(registry);
+        batchSizes = DistributionSummary.builder("students.write.behind.batch")
+                .description("Writes applied together in one transaction")
+                .register(registry);
+        FunctionCounter.builder("students.write.behind.writes", done, LongAdder::sum)
+                .description("Accepted writes by outcome")
+                .tag("result", "done")
+                .register(registry);
+        FunctionCounter.builder("students.write.behind.writes", failed, LongAdder::sum)
+                .description("Accepted writes by outcome")
+                .tag("result", "failed")
+                .register(registry);
+        FunctionCounter.builder("students.write.behind.rejected", rejected, LongAdder::sum)
+                .description("Writes rejected because the queue was full")
+                .register(registry);
+    }
+
+    private static class Write {
+
+        private final WriteStatusDTO status;
+        private final StudentDTO student;
+
+        private Write(WriteStatusDTO status, StudentDTO student){
+            this.status = status;
+            this.student = student;
+        }
+    }
+}
@@ -4,11 +4,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(HttpStatus.BAD_REQUEST)
-public class EmailAlreadyRegisteredException extends RuntimeException {
+public class EmailAlreadyRegisteredException extends StacklessException {
 
     private static final long serialVersionUID = 1L;
 
     public EmailAlreadyRegisteredException(String email){
-        super(String.format("The email address provided (%s) is already registered by another student!", email));
+        super("The email address provided (" + email + ") is already registered by another student!");
     }
 }
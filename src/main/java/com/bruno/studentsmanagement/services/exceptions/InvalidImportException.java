@@ -0,0 +1,16 @@
+package com.bruno.studentsmanagement.services.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.Collection;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidImportException extends StacklessException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidImportException(Collection<String> columns){
+        super(String.format("The CSV header must name the columns: %s", String.join(", ", columns)));
+    }
+}
@@ -0,0 +1,18 @@
+package com.bruno.studentsmanagement.services.exceptions;
+
+/**
+ * Base of the exceptions answering a client's mistake. They are thrown on every 404 or 400 and carry
+ * everything the response needs in their message, so filling in a stack trace is skipped unless
+ * {@code -Dstudents.exceptions.stack-traces=true} is set.
+ */
+public abstract class StacklessException extends RuntimeException {
+
+    public static final String STACK_TRACES_PROPERTY = "students.exceptions.stack-traces";
+
+    private static final long serialVersionUID = 1L;
+    private static final boolean STACK_TRACES = Boolean.getBoolean(STACK_TRACES_PROPERTY);
+
+    protected StacklessException(String message){
+        super(message, null, false, STACK_TRACES);
+    }
+}
@@ -0,0 +1,22 @@
+package com.bruno.studentsmanagement.services.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class StudentModifiedException extends StacklessException {
+
+    private static final long serialVersionUID = 1L;
+
+    public StudentModifiedException(Long id, Long version){
+        super(String.format("The student identified by this ID: %s was modified after version %s, please fetch it again!", id, version));
+    }
+
+    public StudentModifiedException(String email, Long version){
+        super(String.format("The student with this email address: %s was modified after version %s, please fetch it again!", email, version));
+    }
+
+    public StudentModifiedException(String eTag){
+        super(String.format("The ETag informed (%s) does not identify a version of this student!", eTag));
+    }
+}
@@ -4,15 +4,15 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(HttpStatus.NOT_FOUND)
-public class StudentNotFoundException extends RuntimeException{
+public class StudentNotFoundException extends StacklessException {
 
     private static final long serialVersionUID = 1L;
 
     public StudentNotFoundException(Long id){
-        super(String.format("There is no student registered with this ID: %s", id));
+        super("There is no student registered with this ID: " + id);
     }
 
     public StudentNotFoundException(String email){
-        super(String.format("There is no student registered with this email address: %s", email));
+        super("There is no student registered with this email address: " + email);
     }
 }
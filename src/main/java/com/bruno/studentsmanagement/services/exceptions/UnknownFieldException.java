@@ -0,0 +1,16 @@
+package com.bruno.studentsmanagement.services.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.Collection;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnknownFieldException extends StacklessException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UnknownFieldException(String field, Collection<String> fields){
+        super(String.format("The field informed (%s) is not a student field, choose among: %s", field, String.join(", ", fields)));
+    }
+}
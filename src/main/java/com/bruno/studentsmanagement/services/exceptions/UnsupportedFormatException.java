@@ -0,0 +1,19 @@
+package com.bruno.studentsmanagement.services.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnsupportedFormatException extends StacklessException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UnsupportedFormatException(String format, Enum<?>[] formats){
+        super(String.format("The format informed (%s) is not supported, choose among: %s", format,
+                Arrays.stream(formats).map(value -> value.name().toLowerCase(Locale.ROOT)).collect(Collectors.joining(", "))));
+    }
+}
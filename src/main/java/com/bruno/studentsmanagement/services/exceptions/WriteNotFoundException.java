@@ -0,0 +1,14 @@
+package com.bruno.studentsmanagement.services.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class WriteNotFoundException extends StacklessException {
+
+    private static final long serialVersionUID = 1L;
+
+    public WriteNotFoundException(String id){
+        super("There is no pending or recent write with this tracking ID: " + id);
+    }
+}
@@ -0,0 +1,71 @@
+package com.bruno.studentsmanagement.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental RFC 4180 reader: one record per call, so only the current record is held in memory.
+ * Quoted fields may contain separators, doubled quotes and line breaks; CRLF and LF both end a record.
+ */
+public class CsvParser {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private boolean unterminated;
+
+    public CsvParser(Reader reader){
+        this.reader = reader instanceof BufferedReader ? reader : new BufferedReader(reader, BUFFER_SIZE);
+    }
+
+    /**
+     * @return the fields of the next record, or null at the end of the input
+     */
+    public List<String> next() throws IOException {
+        unterminated = false;
+        int c = reader.read();
+        if(c == -1) return null;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while(true){
+            if(quoted){
+                if(c == -1){
+                    unterminated = true;
+                    fields.add(field.toString());
+                    return fields;
+                }
+                if(c == '"'){
+                    c = reader.read();
+                    if(c != '"'){
+                        quoted = false;
+                        continue;
+                    }
+                }
+                field.append((char) c);
+            } else if(c == -1 || c == '\n'){
+                fields.add(field.toString());
+                return fields;
+            } else if(c == ','){
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if(c == '"' && field.length() == 0){
+                quoted = true;
+            } else if(c != '\r'){
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    /**
+     * Whether the input ended inside a quoted field of the record last returned, which then holds
+     * everything after the opening quote.
+     */
+    public boolean isUnterminated(){
+        return unterminated;
+    }
+}
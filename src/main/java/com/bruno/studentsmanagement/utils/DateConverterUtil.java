@@ -1,18 +1,20 @@
 package com.bruno.studentsmanagement.utils;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.TimeZone;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
 public class DateConverterUtil {
 
-    public static Date convertDate(String date) {
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-        sdf.setTimeZone(TimeZone.getTimeZone("GMT"));
+    public static final String DATE_PATTERN = "yyyy-MM-dd";
+
+    /** Immutable and thread safe, shared by every caller. */
+    public static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
+
+    public static LocalDate convertDate(String date) {
         try {
-            return sdf.parse(date);
-        } catch (ParseException e){
+            return LocalDate.parse(date, DATE_FORMATTER);
+        } catch (DateTimeParseException e){
             return null;
         }
     }
@@ -1,19 +1,77 @@
 package com.bruno.studentsmanagement.utils;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 
+/**
+ * Standalone mappers configured like the application's, with the readers and writers for students
+ * resolved once, for code running outside the Spring context: tests, benchmarks and the Protobuf
+ * converter. The application itself uses the mapper Spring Boot builds, see JacksonConfig.
+ * {@link #objectMapper(boolean)} can add the Blackbird module, which replaces reflective property
+ * access with generated lambdas.
+ */
 public class JsonConvertionUtil {
 
+    private static final ObjectMapper OBJECT_MAPPER = objectMapper(false);
+    private static final ObjectMapper SMILE_MAPPER = configure(Jackson2ObjectMapperBuilder.smile()).build();
+    private static final ObjectMapper CBOR_MAPPER = configure(Jackson2ObjectMapperBuilder.cbor()).build();
+    private static final ObjectMapper PROTOBUF_MAPPER = configure(Jackson2ObjectMapperBuilder.json().factory(new ProtobufFactory())).build();
+    private static final StudentJson STUDENT_JSON = new StudentJson(OBJECT_MAPPER);
+
+    public static ObjectMapper objectMapper(boolean blackbird){
+        Jackson2ObjectMapperBuilder builder = configure(Jackson2ObjectMapperBuilder.json());
+        if(blackbird) builder.modulesToInstall(new BlackbirdModule());
+        return builder.build();
+    }
+
+    public static ObjectMapper objectMapper(){
+        return OBJECT_MAPPER;
+    }
+
+    public static ObjectMapper smileMapper(){
+        return SMILE_MAPPER;
+    }
+
+    public static ObjectMapper cborMapper(){
+        return CBOR_MAPPER;
+    }
+
+    public static ObjectMapper protobufMapper(){
+        return PROTOBUF_MAPPER;
+    }
+
+    public static StudentJson studentJson(){
+        return STUDENT_JSON;
+    }
+
+    public static ObjectReader studentReader(){
+        return STUDENT_JSON.reader();
+    }
+
+    public static ObjectWriter studentWriter(){
+        return STUDENT_JSON.writer();
+    }
+
+    public static ObjectReader studentListReader(){
+        return STUDENT_JSON.listReader();
+    }
+
+    public static ObjectWriter studentListWriter(){
+        return STUDENT_JSON.listWriter();
+    }
+
+    private static Jackson2ObjectMapperBuilder configure(Jackson2ObjectMapperBuilder builder){
+        return builder.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
     public static String asJsonString(Object object){
         try{
-            ObjectMapper objectMapper = new ObjectMapper();
-            objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-            objectMapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
-            objectMapper.registerModules(new JavaTimeModule());
-            return objectMapper.writeValueAsString(object);
+            return OBJECT_MAPPER.writeValueAsString(object);
         } catch (Exception e){
             throw new RuntimeException(e);
         }
@@ -0,0 +1,91 @@
+package com.bruno.studentsmanagement.utils;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key: the first caller runs the call, the ones arriving while
+ * it is in flight wait for and share its outcome, value or exception. Nothing is remembered once the
+ * call completes, so this never serves a stale value; it only removes duplicate work.
+ * Followers receive the leader's very object, so the value must be immutable or copied by the caller.
+ * A call started before a write may still be in flight after it; callers that must not join such a call
+ * put a generation moved on by every write in the key.
+ */
+public class SingleFlight<K, V> implements MeterBinder {
+
+    private final String name;
+    private final Map<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public SingleFlight(String name){
+        this.name = name;
+    }
+
+    public V execute(K key, Supplier<V> call){
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = calls.putIfAbsent(key, flight);
+        if(inFlight != null){
+            coalesced.increment();
+            return await(inFlight);
+        }
+        executed.increment();
+        try {
+            V value = call.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e){
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, flight);
+        }
+    }
+
+    public long executed(){
+        return executed.sum();
+    }
+
+    public long coalesced(){
+        return coalesced.sum();
+    }
+
+    public int inFlight(){
+        return calls.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry){
+        FunctionCounter.builder("students.single.flight.calls", executed, LongAdder::sum)
+                .description("Calls either executed or coalesced with an identical call in flight")
+                .tags("name", name, "result", "executed")
+                .register(registry);
+        FunctionCounter.builder("students.single.flight.calls", coalesced, LongAdder::sum)
+                .description("Calls either executed or coalesced with an identical call in flight")
+                .tags("name", name, "result", "coalesced")
+                .register(registry);
+        Gauge.builder("students.single.flight.in.flight", calls, Map::size)
+                .description("Distinct calls currently in flight")
+                .tag("name", name)
+                .register(registry);
+    }
+
+    private static <V> V await(CompletableFuture<V> flight){
+        try {
+            return flight.join();
+        } catch (CompletionException e){
+            if(e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            if(e.getCause() instanceof Error) throw (Error) e.getCause();
+            throw e;
+        }
+    }
+}
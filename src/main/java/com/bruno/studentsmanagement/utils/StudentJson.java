@@ -0,0 +1,52 @@
+package com.bruno.studentsmanagement.utils;
+
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.util.List;
+
+/**
+ * An ObjectMapper with its readers and writers for students resolved once. The application's one is built
+ * from the mapper Spring Boot configures, JsonConvertionUtil keeps a standalone one for tests and benchmarks.
+ */
+public class StudentJson {
+
+    private static final TypeReference<List<StudentDTO>> STUDENT_LIST = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+    private final ObjectReader listReader;
+    private final ObjectWriter listWriter;
+
+    public StudentJson(ObjectMapper objectMapper){
+        this.objectMapper = objectMapper;
+        this.reader = objectMapper.readerFor(StudentDTO.class);
+        this.writer = objectMapper.writerFor(StudentDTO.class);
+        this.listReader = objectMapper.readerFor(STUDENT_LIST);
+        this.listWriter = objectMapper.writerFor(STUDENT_LIST);
+    }
+
+    public ObjectMapper mapper(){
+        return objectMapper;
+    }
+
+    public ObjectReader reader(){
+        return reader;
+    }
+
+    public ObjectWriter writer(){
+        return writer;
+    }
+
+    public ObjectReader listReader(){
+        return listReader;
+    }
+
+    public ObjectWriter listWriter(){
+        return listWriter;
+    }
+}
@@ -0,0 +1,13 @@
+create table tb_student (
+    id bigint generated by default as identity,
+    name varchar(50) not null,
+    birth_date timestamp not null,
+    email varchar(255) not null,
+    phone varchar(15) not null,
+    attendance integer,
+    version bigint default 0 not null,
+    primary key (id),
+    constraint uk_student_email unique (email)
+);
+
+create index ix_student_name on tb_student (name);
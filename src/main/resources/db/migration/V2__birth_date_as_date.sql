@@ -0,0 +1 @@
+alter table tb_student alter column birth_date set data type date;
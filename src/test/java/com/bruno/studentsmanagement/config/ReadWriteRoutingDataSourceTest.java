@@ -0,0 +1,138 @@
+package com.bruno.studentsmanagement.config;
+
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import com.bruno.studentsmanagement.repositories.StudentJdbcRepository;
+import com.bruno.studentsmanagement.repositories.StudentRepository;
+import com.bruno.studentsmanagement.services.StudentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.bruno.studentsmanagement.utils.DateConverterUtil.convertDate;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * Runs against two separate in-memory H2 databases standing in for a primary and its replica. Nothing
+ * replicates between them, so where a student can be read from tells which one a transaction went to.
+ * The second-level and query caches are off, as they would answer reads without touching either database.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "students.datasource.replica.jdbc-url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "students.datasource.replica.username=sa",
+        "students.datasource.replica.max-staleness=0s",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+public class ReadWriteRoutingDataSourceTest {
+
+    private static final AtomicInteger NEXT_STUDENT = new AtomicInteger();
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentJdbcRepository studentJdbcRepository;
+
+    @Autowired
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    /** Hibernate only creates the schema on the primary, the replica gets it from the migrations. */
+    @BeforeEach
+    void createReplicaSchema() {
+        Integer tables = new JdbcTemplate(replicaDataSource).queryForObject(
+                "select count(*) from information_schema.tables where table_name = 'TB_STUDENT'", Integer.class
+        );
+        if(tables != null && tables > 0) return;
+        new ResourceDatabasePopulator(
+                new ClassPathResource("db/migration/V1__create_tb_student.sql"),
+                new ClassPathResource("db/migration/V2__birth_date_as_date.sql")
+        ).execute(replicaDataSource);
+    }
+
+    @AfterEach
+    void resetMaxStaleness() {
+        routingDataSource.setMaxStaleness(Duration.ZERO);
+    }
+
+    @Test
+    void whenAReadOnlyTransactionRunsThenItReadsFromTheReplica() {
+        StudentDTO studentDTO = newStudent();
+        insertIntoReplica(studentDTO);
+        assertThat(studentRepository.findDTOByEmail(studentDTO.getEmail()).isPresent(), is(true));
+        assertThat(count(primaryDataSource, studentDTO.getEmail()), is(equalTo(0)));
+    }
+
+    @Test
+    void whenAStudentIsSavedThenItIsWrittenToThePrimary() {
+        StudentDTO studentDTO = studentService.save(newStudent());
+        assertThat(count(primaryDataSource, studentDTO.getEmail()), is(equalTo(1)));
+        assertThat(count(replicaDataSource, studentDTO.getEmail()), is(equalTo(0)));
+        assertThat(studentRepository.findDTOByEmail(studentDTO.getEmail()).isPresent(), is(false));
+    }
+
+    @Test
+    void whenTheReplicaMayNotHaveCaughtUpThenReadsGoToThePrimary() {
+        routingDataSource.setMaxStaleness(Duration.ofMinutes(1));
+        StudentDTO studentDTO = studentService.save(newStudent());
+        assertThat(studentRepository.findDTOByEmail(studentDTO.getEmail()).isPresent(), is(true));
+    }
+
+    @Test
+    void whenAReadRunsOutsideOfATransactionThenLaterReadsStillGoToTheReplica() {
+        routingDataSource.setMaxStaleness(Duration.ofMinutes(1));
+        StudentDTO studentDTO = newStudent();
+        insertIntoReplica(studentDTO);
+        assertThat(studentJdbcRepository.findIdsByEmail(List.of(studentDTO.getEmail())).isEmpty(), is(true));
+        assertThat(studentRepository.findDTOByEmail(studentDTO.getEmail()).isPresent(), is(true));
+    }
+
+    private void insertIntoReplica(StudentDTO studentDTO){
+        new JdbcTemplate(replicaDataSource).update(
+                "insert into tb_student (name, birth_date, email, phone, attendance, version) values (?, ?, ?, ?, ?, 0)",
+                studentDTO.getName(), studentDTO.getBirthDate(), studentDTO.getEmail(), studentDTO.getPhone(), studentDTO.getAttendance()
+        );
+    }
+
+    private static int count(DataSource dataSource, String email){
+        Integer count = new JdbcTemplate(dataSource).queryForObject(
+                "select count(*) from tb_student where email = ?", Integer.class, email
+        );
+        return count == null ? 0 : count;
+    }
+
+    private static StudentDTO newStudent(){
+        int i = NEXT_STUDENT.incrementAndGet();
+        return new StudentDTO(
+                null, "Pedro Álvares Cabral " + i,
+                convertDate("1467-01-01"),
+                "routing-" + i + "@gmail.com",
+                "(11) 98741-3652",
+                0, null
+        );
+    }
+}
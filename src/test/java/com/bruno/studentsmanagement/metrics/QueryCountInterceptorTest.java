@@ -0,0 +1,78 @@
+package com.bruno.studentsmanagement.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.core.Is.is;
+
+public class QueryCountInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private QueryCountInterceptor queryCountInterceptor = new QueryCountInterceptor(meterRegistry);
+
+    @Test
+    void whenARequestCompletesThenTheStatementsItIssuedAreRecorded() {
+        MockHttpServletRequest request = request();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        QueryCount.increment();
+        queryCountInterceptor.preHandle(request, response, null);
+        QueryCount.increment();
+        QueryCount.increment();
+        queryCountInterceptor.afterCompletion(request, response, null, null);
+        QueryCount.increment();
+
+        assertThat(summary().count(), is(equalTo(1L)));
+        assertThat(summary().totalAmount(), is(equalTo(2.0)));
+    }
+
+    @Test
+    void whenAnAsynchronousRequestCompletesThenTheStatementsOfEveryThreadAreRecordedOnce() throws Exception {
+        MockHttpServletRequest request = request();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            queryCountInterceptor.preHandle(request, response, null);
+            QueryCount.increment();
+            CompletableFuture<Void> task = CompletableFuture.supplyAsync(QueryCount.propagate(() -> {
+                QueryCount.increment();
+                QueryCount.increment();
+                return null;
+            }), executor);
+            queryCountInterceptor.afterConcurrentHandlingStarted(request, response, null);
+            task.get();
+            executor.submit(QueryCount::increment).get();
+
+            queryCountInterceptor.preHandle(request, response, null);
+            queryCountInterceptor.afterCompletion(request, response, null, null);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(summary().count(), is(equalTo(1L)));
+        assertThat(summary().totalAmount(), is(equalTo(3.0)));
+    }
+
+    private static MockHttpServletRequest request(){
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/students/id/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/students/id/{id}");
+        return request;
+    }
+
+    private DistributionSummary summary(){
+        return meterRegistry.get("students.http.queries")
+                .tag("uri", "/api/v1/students/id/{id}")
+                .summary();
+    }
+}
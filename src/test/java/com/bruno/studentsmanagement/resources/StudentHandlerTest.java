@@ -0,0 +1,53 @@
+package com.bruno.studentsmanagement.resources;
+
+import com.bruno.studentsmanagement.exceptions.ExceptionCounters;
+import com.bruno.studentsmanagement.services.ReactiveStudentService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StudentHandlerTest {
+
+    @Mock
+    private ReactiveStudentService reactiveStudentService;
+
+    @Mock
+    private ExceptionCounters exceptionCounters;
+
+    @InjectMocks
+    private StudentHandler studentHandler;
+
+    @Test
+    void whenTheIdIsNotANumberThenRespondBadRequest() {
+        ServerResponse response = studentHandler.findById(MockServerRequest.builder().pathVariable("id", "abc").build()).block();
+        assertThat(response.statusCode(), is(equalTo(HttpStatus.BAD_REQUEST)));
+        verifyNoInteractions(reactiveStudentService);
+    }
+
+    @Test
+    void whenAPageParameterIsNotANumberThenRespondBadRequest() {
+        ServerResponse response = studentHandler.findAll(MockServerRequest.builder().queryParam("limit", "ten").build()).block();
+        assertThat(response.statusCode(), is(equalTo(HttpStatus.BAD_REQUEST)));
+        verifyNoInteractions(reactiveStudentService);
+    }
+
+    @Test
+    void whenASearchPageIsNegativeThenRespondBadRequest() {
+        ServerResponse response = studentHandler.findByNameContainingIgnoreCase(
+                MockServerRequest.builder().queryParam("page", "-1").build()
+        ).block();
+        assertThat(response.statusCode(), is(equalTo(HttpStatus.BAD_REQUEST)));
+        verifyNoInteractions(reactiveStudentService);
+    }
+}
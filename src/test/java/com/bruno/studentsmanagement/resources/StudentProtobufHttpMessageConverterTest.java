@@ -0,0 +1,87 @@
+package com.bruno.studentsmanagement.resources;
+
+import com.bruno.studentsmanagement.dto.CursorPageDTO;
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import com.bruno.studentsmanagement.exceptions.StandardError;
+import com.bruno.studentsmanagement.utils.JsonConvertionUtil;
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static com.bruno.studentsmanagement.utils.DateConverterUtil.convertDate;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class StudentProtobufHttpMessageConverterTest {
+
+    private final StudentProtobufHttpMessageConverter converter = new StudentProtobufHttpMessageConverter();
+
+    private final StudentDTO givenStudent = new StudentDTO(
+            1L, "Pedro Álvares Cabral",
+            convertDate("1467-01-01"),
+            "pedroac@gmail.com",
+            "(11) 98741-3652",
+            0, null
+    );
+
+    @Test
+    void whenAStudentIsWrittenThenItIsReadBackUnchanged() throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(givenStudent, StudentProtobufHttpMessageConverter.APPLICATION_PROTOBUF, output);
+        Object student = converter.read(StudentDTO.class, new MockHttpInputMessage(output.getBodyAsBytes()));
+        assertThat(student, is(equalTo(givenStudent)));
+    }
+
+    @Test
+    void whenAPageIsWrittenThenItFollowsTheStudentPageMessage() throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        CursorPageDTO<StudentDTO> page = new CursorPageDTO<>(Collections.singletonList(givenStudent), 1L);
+        converter.write(page, StudentProtobufHttpMessageConverter.APPLICATION_PROTOBUF, output);
+        CursorPageDTO<StudentDTO> readPage = JsonConvertionUtil.protobufMapper()
+                .readerFor(new TypeReference<CursorPageDTO<StudentDTO>>() {})
+                .with(StudentProtobufHttpMessageConverter.STUDENT_PAGE)
+                .readValue(output.getBodyAsBytes());
+        assertThat(readPage, is(equalTo(page)));
+    }
+
+    @Test
+    void whenASearchResultIsWrittenThenItFollowsTheStudentListMessage() throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(List.of(givenStudent), StudentProtobufHttpMessageConverter.APPLICATION_PROTOBUF, output);
+        Map<String, List<StudentDTO>> list = JsonConvertionUtil.protobufMapper()
+                .readerFor(new TypeReference<Map<String, List<StudentDTO>>>() {})
+                .with(StudentProtobufHttpMessageConverter.STUDENT_LIST)
+                .readValue(output.getBodyAsBytes());
+        assertThat(list.get("content"), contains(givenStudent));
+    }
+
+    @Test
+    void whenAPageIsRequestedThenOnlyStudentsCanBeRead(){
+        assertThat(converter.canRead(StudentDTO.class, StudentProtobufHttpMessageConverter.APPLICATION_PROTOBUF), is(true));
+        assertThat(converter.canRead(CursorPageDTO.class, StudentProtobufHttpMessageConverter.APPLICATION_PROTOBUF), is(false));
+    }
+
+    @Test
+    void whenAListOrPageIsNotOfStudentsThenItCannotBeWritten(){
+        MediaType protobuf = StudentProtobufHttpMessageConverter.APPLICATION_PROTOBUF;
+        Type students = new ParameterizedTypeReference<List<StudentDTO>>() {}.getType();
+        Type fields = new ParameterizedTypeReference<List<Map<String, Object>>>() {}.getType();
+        Type studentPage = new ParameterizedTypeReference<CursorPageDTO<StudentDTO>>() {}.getType();
+        Type fieldsPage = new ParameterizedTypeReference<CursorPageDTO<Map<String, Object>>>() {}.getType();
+        assertThat(converter.canWrite(students, ArrayList.class, protobuf), is(true));
+        assertThat(converter.canWrite(studentPage, CursorPageDTO.class, protobuf), is(true));
+        assertThat(converter.canWrite(fields, ArrayList.class, protobuf), is(false));
+        assertThat(converter.canWrite(fieldsPage, CursorPageDTO.class, protobuf), is(false));
+        assertThat(converter.canWrite(null, ArrayList.class, protobuf), is(false));
+        assertThat(converter.canWrite(StandardError.class, StandardError.class, protobuf), is(false));
+    }
+}
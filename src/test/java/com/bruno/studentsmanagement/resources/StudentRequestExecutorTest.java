@@ -0,0 +1,62 @@
+package com.bruno.studentsmanagement.resources;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StudentRequestExecutorTest {
+
+    private StudentRequestExecutor studentRequestExecutor;
+
+    @AfterEach
+    void tearDown() {
+        if(studentRequestExecutor != null) studentRequestExecutor.destroy();
+    }
+
+    @Test
+    void whenTheExecutorIsDisabledThenTheTaskRunsOnTheCallingThread() {
+        studentRequestExecutor = new StudentRequestExecutor(false, 1, 1);
+        CompletableFuture<Thread> future = studentRequestExecutor.submit(Thread::currentThread);
+        assertThat(future.join(), is(sameInstance(Thread.currentThread())));
+    }
+
+    @Test
+    void whenTheExecutorIsEnabledThenTheTaskRunsOnAPoolThread() {
+        studentRequestExecutor = new StudentRequestExecutor(true, 1, 1);
+        CompletableFuture<String> future = studentRequestExecutor.submit(() -> Thread.currentThread().getName());
+        assertThat(future.join(), startsWith("students-request-"));
+    }
+
+    @Test
+    void whenThePoolAndTheQueueAreFullThenFurtherTasksAreRejected() throws Exception {
+        studentRequestExecutor = new StudentRequestExecutor(true, 1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        studentRequestExecutor.submit(() -> {
+            started.countDown();
+            return await(release);
+        });
+        started.await(5, TimeUnit.SECONDS);
+        studentRequestExecutor.submit(() -> true);
+        assertThrows(RejectedExecutionException.class, () -> studentRequestExecutor.submit(() -> true));
+        release.countDown();
+    }
+
+    private static boolean await(CountDownLatch latch){
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,30 +1,58 @@
 package com.bruno.studentsmanagement.resources;
 
+import com.bruno.studentsmanagement.dto.BatchErrorDTO;
+import com.bruno.studentsmanagement.dto.BatchResultDTO;
+import com.bruno.studentsmanagement.dto.CursorPageDTO;
 import com.bruno.studentsmanagement.dto.StudentDTO;
+import com.bruno.studentsmanagement.dto.WriteStatusDTO;
 import com.bruno.studentsmanagement.entities.Student;
+import com.bruno.studentsmanagement.exceptions.FieldMessage;
+import com.bruno.studentsmanagement.services.StudentBatchService;
+import com.bruno.studentsmanagement.services.StudentExportService;
 import com.bruno.studentsmanagement.services.StudentService;
+import com.bruno.studentsmanagement.services.StudentWriteBehind;
 import com.bruno.studentsmanagement.services.exceptions.EmailAlreadyRegisteredException;
+import com.bruno.studentsmanagement.services.exceptions.StudentModifiedException;
 import com.bruno.studentsmanagement.services.exceptions.StudentNotFoundException;
+import com.bruno.studentsmanagement.services.exceptions.UnknownFieldException;
+import com.bruno.studentsmanagement.utils.JsonConvertionUtil;
+import com.bruno.studentsmanagement.utils.StudentJson;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
 
 import static com.bruno.studentsmanagement.utils.DateConverterUtil.convertDate;
 import static com.bruno.studentsmanagement.utils.JsonConvertionUtil.asJsonString;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.Mockito.*;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -38,7 +66,7 @@ public class StudentResourceTest {
             convertDate("1467-01-01"),
             "pedroac@gmail.com",
             "(11) 98741-3652",
-            0
+            0, null
     );
 
     private StudentDTO expectedStudent = new StudentDTO(givenStudent);
@@ -48,6 +76,21 @@ public class StudentResourceTest {
     @Mock
     private StudentService studentService;
 
+    @Mock
+    private StudentBatchService studentBatchService;
+
+    @Mock
+    private StudentExportService studentExportService;
+
+    @Mock
+    private StudentWriteBehind studentWriteBehind;
+
+    @Spy
+    private StudentRequestExecutor studentRequestExecutor = new StudentRequestExecutor(false, 1, 1);
+
+    @Spy
+    private StudentJson studentJson = JsonConvertionUtil.studentJson();
+
     @InjectMocks
     private StudentResource studentResource;
 
@@ -56,48 +99,249 @@ public class StudentResourceTest {
         mockMvc = MockMvcBuilders.standaloneSetup(studentResource)
                 .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
                 .setViewResolvers((s, locale) -> new MappingJackson2JsonView())
+                .setCustomHandlerMapping(PreferHandlerMapping::new)
                 .build();
     }
 
+    private ResultActions perform(RequestBuilder request) throws Exception {
+        ResultActions actions = mockMvc.perform(request);
+        MvcResult result = actions.andReturn();
+        return result.getRequest().isAsyncStarted() ? mockMvc.perform(asyncDispatch(result)) : actions;
+    }
+
     @Test
     void whenPOSTIsCalledThenCreatedStatusIsReturned() throws Exception {
         when(studentService.save(expectedStudent)).thenReturn(expectedStudent);
-        mockMvc.perform(post(URL)
+        perform(post(URL)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(asJsonString(givenStudent)))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.name", is(expectedStudent.getName())))
-                .andExpect(jsonPath("$.birthDate", is(expectedStudent.getBirthDate().getTime())))
+                .andExpect(jsonPath("$.birthDate", is(expectedStudent.getBirthDate().toString())))
                 .andExpect(jsonPath("$.email", is(expectedStudent.getEmail())))
                 .andExpect(jsonPath("$.phone", is(expectedStudent.getPhone())))
                 .andExpect(jsonPath("$.attendance", is(expectedStudent.getAttendance())));
     }
 
+    @Test
+    void whenPOSTIsCalledPreferringAnAsyncResponseThenTheWriteIsAcceptedWithItsStatusLocation() throws Exception {
+        WriteStatusDTO status = new WriteStatusDTO("write-1", WriteStatusDTO.Operation.SAVE, WriteStatusDTO.Status.PENDING, null, null);
+        when(studentWriteBehind.enqueue(WriteStatusDTO.Operation.SAVE, expectedStudent)).thenReturn(status);
+        perform(post(URL)
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(givenStudent)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/api/v1/students/writes/write-1"))
+                .andExpect(jsonPath("$.status", is("PENDING")));
+        verify(studentService, never()).save(any());
+    }
+
+    @Test
+    void whenPUTIsCalledPreferringAnAsyncResponseAmongOtherPreferencesThenTheWriteIsAccepted() throws Exception {
+        WriteStatusDTO status = new WriteStatusDTO("write-1", WriteStatusDTO.Operation.UPDATE_BY_EMAIL, WriteStatusDTO.Status.PENDING, null, null);
+        when(studentWriteBehind.enqueue(WriteStatusDTO.Operation.UPDATE_BY_EMAIL, expectedStudent)).thenReturn(status);
+        perform(MockMvcRequestBuilders.put(URL)
+                .header("Prefer", "return=minimal, respond-async; x")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(givenStudent)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Preference-Applied", "respond-async"));
+        verify(studentService, never()).updateByEmail(any());
+    }
+
+    @Test
+    void whenPOSTIsCalledWithOtherPreferencesThenTheWriteIsApplied() throws Exception {
+        when(studentService.save(expectedStudent)).thenReturn(expectedStudent);
+        perform(post(URL)
+                .header("Prefer", "respond-asynchronously, wait=10")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(givenStudent)))
+                .andExpect(status().isCreated());
+        verify(studentWriteBehind, never()).enqueue(any(), any());
+    }
+
+    @Test
+    void whenTheStatusOfAnUnknownWriteIsRequestedThenNotFoundStatusIsReturned() throws Exception {
+        when(studentWriteBehind.status("write-1")).thenReturn(Optional.empty());
+        perform(MockMvcRequestBuilders.get(URL + "/writes/write-1"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void whenPOSTIsCalledWithARegisteredStudentEmailThenThrowsEmailAlreadyRegisteredException() throws Exception {
         when(studentService.save(expectedStudent)).thenThrow(EmailAlreadyRegisteredException.class);
-        mockMvc.perform(post(URL)
+        perform(post(URL)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(asJsonString(givenStudent)))
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void whenPOSTIsCalledWithAJsonArrayOfStudentsThenReturnTheBatchResult() throws Exception {
+        BatchResultDTO result = new BatchResultDTO(1, 1, Collections.emptyList());
+        when(studentBatchService.saveAll(any())).thenReturn(result);
+        perform(post(URL + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(Collections.singletonList(givenStudent))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received", is(1)))
+                .andExpect(jsonPath("$.inserted", is(1)));
+    }
+
+    @Test
+    void whenPOSTIsCalledWithAnNdjsonStreamOfStudentsThenReturnTheBatchResult() throws Exception {
+        BatchResultDTO result = new BatchResultDTO(2, 1, Collections.singletonList(
+                new BatchErrorDTO(1, givenStudent.getEmail(), Collections.singletonList(
+                        new FieldMessage("email", "repeated")
+                ))
+        ));
+        when(studentBatchService.saveAll(any())).thenReturn(result);
+        perform(post(URL + "/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(asJsonString(givenStudent) + "\n" + asJsonString(givenStudent) + "\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received", is(2)))
+                .andExpect(jsonPath("$.inserted", is(1)))
+                .andExpect(jsonPath("$.errors[0].index", is(1)))
+                .andExpect(jsonPath("$.errors[0].errors[0].fieldName", is("email")));
+    }
+
+    @Test
+    void whenPOSTIsCalledWithACsvOfStudentsThenEveryRejectedRowAndTheTotalsAreStreamed() throws Exception {
+        BatchErrorDTO error = new BatchErrorDTO(1, givenStudent.getEmail(), Collections.singletonList(
+                new FieldMessage("email", "repeated")
+        ));
+        doAnswer(invocation -> {
+            Consumer<BatchErrorDTO> errors = invocation.getArgument(1);
+            errors.accept(error);
+            return new BatchResultDTO(2, 1, Collections.emptyList());
+        }).when(studentBatchService).saveAll(any(), any());
+        perform(post(URL + "/import")
+                .contentType("text/csv")
+                .content("name,birthDate,email,phone\n"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(asJsonString(error) + "\n"
+                        + asJsonString(new BatchResultDTO(2, 1, Collections.emptyList())) + "\n"));
+    }
+
+    @Test
+    void whenPOSTIsCalledWithACsvWithoutTheStudentColumnsThenBadRequestStatusIsReturned() throws Exception {
+        perform(post(URL + "/import")
+                .contentType("text/csv")
+                .content("name,email\n"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void whenGETIsCalledToFindAllStudentsThenReturnOkStatus() throws Exception {
-        when(studentService.findAll()).thenReturn(Collections.singletonList(expectedStudent));
-        mockMvc.perform(MockMvcRequestBuilders.get(URL)
+        when(studentService.findAll(null, null))
+                .thenReturn(new CursorPageDTO<>(Collections.singletonList(expectedStudent), null));
+        perform(MockMvcRequestBuilders.get(URL)
                 .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name", is(expectedStudent.getName())))
+                .andExpect(jsonPath("$.nextCursor", is(nullValue())));
+    }
+
+    @Test
+    void whenGETIsCalledToFindAllStudentsAfterACursorThenReturnTheNextCursor() throws Exception {
+        when(studentService.findAll(0L, 1))
+                .thenReturn(new CursorPageDTO<>(Collections.singletonList(expectedStudent), expectedStudent.getId()));
+        perform(MockMvcRequestBuilders.get(URL + "?after=0&limit=1")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].email", is(expectedStudent.getEmail())))
+                .andExpect(jsonPath("$.nextCursor", is(expectedStudent.getId().intValue())));
+    }
+
+    @Test
+    void whenGETIsCalledToFindAllStudentsWithFieldsThenReturnOnlyTheseFields() throws Exception {
+        Map<String, Object> student = Map.of("id", expectedStudent.getId(), "name", expectedStudent.getName());
+        when(studentService.findAll(null, null, "name"))
+                .thenReturn(new CursorPageDTO<>(Collections.singletonList(student), null));
+        perform(MockMvcRequestBuilders.get(URL + "?fields=name")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name", is(expectedStudent.getName())))
+                .andExpect(jsonPath("$.content[0].email").doesNotExist());
+    }
+
+    @Test
+    void whenGETIsCalledToFindAllStudentsWithAnUnknownFieldThenBadRequestStatusIsReturned() throws Exception {
+        when(studentService.findAll(null, null, "password"))
+                .thenThrow(new UnknownFieldException("password", StudentService.FIELDS));
+        perform(MockMvcRequestBuilders.get(URL + "?fields=password")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenGETIsCalledToStreamAllStudentsThenReturnAJsonArray() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<StudentDTO> consumer = invocation.getArgument(0);
+            consumer.accept(expectedStudent);
+            return null;
+        }).when(studentService).streamAll(any());
+        perform(MockMvcRequestBuilders.get(URL + "/stream"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is(expectedStudent.getName())))
+                .andExpect(jsonPath("$[0].email", is(expectedStudent.getEmail())));
+    }
+
+    @Test
+    void whenGETIsCalledToExportAllStudentsThenReturnTheCsvAsAnAttachment() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(1);
+            outputStream.write("id,name\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(studentExportService).exportAll(eq(StudentExportService.Format.CSV), any());
+        perform(MockMvcRequestBuilders.get(URL + "/export?format=csv"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=students.csv"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().string("id,name\n"));
+    }
+
+    @Test
+    void whenGETIsCalledToExportAllStudentsAcceptingGzipThenTheBodyIsGzipped() throws Exception {
+        perform(MockMvcRequestBuilders.get(URL + "/export?format=ndjson").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+        verify(studentExportService, times(1)).exportAll(eq(StudentExportService.Format.NDJSON), any(GZIPOutputStream.class));
+    }
+
+    @Test
+    void whenGETIsCalledToExportAllStudentsAcceptingXGzipThenTheBodyIsGzipped() throws Exception {
+        perform(MockMvcRequestBuilders.get(URL + "/export?format=ndjson").header(HttpHeaders.ACCEPT_ENCODING, "x-gzip;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+        verify(studentExportService, times(1)).exportAll(eq(StudentExportService.Format.NDJSON), any(GZIPOutputStream.class));
+    }
+
+    @Test
+    void whenGETIsCalledToExportAllStudentsRefusingGzipThenTheBodyIsNotGzipped() throws Exception {
+        perform(MockMvcRequestBuilders.get(URL + "/export?format=ndjson").header(HttpHeaders.ACCEPT_ENCODING, "*, gzip;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        verify(studentExportService, never()).exportAll(any(), any(GZIPOutputStream.class));
+    }
+
+    @Test
+    void whenGETIsCalledToExportAllStudentsWithAnUnknownFormatThenBadRequestStatusIsReturned() throws Exception {
+        perform(MockMvcRequestBuilders.get(URL + "/export?format=xml"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
     void whenGETIsCalledToFindAStudentByARegisteredIdThenReturnOkStatus() throws Exception {
         when(studentService.findById(givenStudent.getId())).thenReturn(expectedStudent);
-        mockMvc.perform(MockMvcRequestBuilders.get(URL + "/id/" + givenStudent.getId())
+        perform(MockMvcRequestBuilders.get(URL + "/id/" + givenStudent.getId())
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.name", is(expectedStudent.getName())))
-                .andExpect(jsonPath("$.birthDate", is(expectedStudent.getBirthDate().getTime())))
+                .andExpect(jsonPath("$.birthDate", is(expectedStudent.getBirthDate().toString())))
                 .andExpect(jsonPath("$.email", is(expectedStudent.getEmail())))
                 .andExpect(jsonPath("$.phone", is(expectedStudent.getPhone())))
                 .andExpect(jsonPath("$.attendance", is(expectedStudent.getAttendance())));
@@ -106,19 +350,43 @@ public class StudentResourceTest {
     @Test
     void whenGETIsCalledToFindAStudentByAnUnregisteredIdThenThrowStudentNotFoundException() throws Exception {
         when(studentService.findById(givenStudent.getId())).thenThrow(StudentNotFoundException.class);
-        mockMvc.perform(MockMvcRequestBuilders.get(URL + "/id/" + givenStudent.getId())
+        perform(MockMvcRequestBuilders.get(URL + "/id/" + givenStudent.getId())
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void whenGETIsCalledWithTheCurrentETagThenNotModifiedStatusIsReturned() throws Exception {
+        StudentDTO studentDTO = new StudentDTO(givenStudent);
+        studentDTO.setVersion(2L);
+        when(studentService.findById(givenStudent.getId())).thenReturn(studentDTO);
+        perform(MockMvcRequestBuilders.get(URL + "/id/" + givenStudent.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"2-0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2-0\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void whenGETIsCalledWithAStaleETagThenTheStudentAndItsETagAreReturned() throws Exception {
+        StudentDTO studentDTO = new StudentDTO(givenStudent);
+        studentDTO.setVersion(3L);
+        when(studentService.findByEmail(givenStudent.getEmail())).thenReturn(studentDTO);
+        perform(MockMvcRequestBuilders.get(URL + "/email/" + givenStudent.getEmail())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"2-0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-0\""))
+                .andExpect(jsonPath("$.email", is(expectedStudent.getEmail())));
+    }
+
     @Test
     void whenGETIsCalledToFindAStudentByEmailWithARegisteredEmailThenReturnOkStatus() throws Exception {
         when(studentService.findByEmail(givenStudent.getEmail())).thenReturn(expectedStudent);
-        mockMvc.perform(MockMvcRequestBuilders.get(URL + "/email/" + givenStudent.getEmail())
+        perform(MockMvcRequestBuilders.get(URL + "/email/" + givenStudent.getEmail())
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.name", is(expectedStudent.getName())))
-                .andExpect(jsonPath("$.birthDate", is(expectedStudent.getBirthDate().getTime())))
+                .andExpect(jsonPath("$.birthDate", is(expectedStudent.getBirthDate().toString())))
                 .andExpect(jsonPath("$.email", is(expectedStudent.getEmail())))
                 .andExpect(jsonPath("$.phone", is(expectedStudent.getPhone())))
                 .andExpect(jsonPath("$.attendance", is(expectedStudent.getAttendance())));
@@ -127,7 +395,7 @@ public class StudentResourceTest {
     @Test
     void whenGETIsCalledToFindAStudentByEmailWithAnUnregisteredEmailThenThrowStudentNotFoundException() throws Exception {
         when(studentService.findByEmail(givenStudent.getEmail())).thenThrow(StudentNotFoundException.class);
-        mockMvc.perform(MockMvcRequestBuilders.get(URL + "/email/" + givenStudent.getEmail())
+        perform(MockMvcRequestBuilders.get(URL + "/email/" + givenStudent.getEmail())
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
     }
@@ -135,7 +403,7 @@ public class StudentResourceTest {
     @Test
     void whenDELETEIsCalledWithARegisteredIdThenReturnNoContentStatus() throws Exception {
         doNothing().when(studentService).deleteById(givenStudent.getId());
-        mockMvc.perform(MockMvcRequestBuilders.delete(URL + "/id/" + givenStudent.getId())
+        perform(MockMvcRequestBuilders.delete(URL + "/id/" + givenStudent.getId())
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNoContent());
     }
@@ -143,7 +411,7 @@ public class StudentResourceTest {
     @Test
     void whenDELETEIsCalledWithARegisteredIdThenThrowStudentNotFoundException() throws Exception {
         doThrow(StudentNotFoundException.class).when(studentService).deleteById(givenStudent.getId());
-        mockMvc.perform(MockMvcRequestBuilders.delete(URL + "/id/" + givenStudent.getId())
+        perform(MockMvcRequestBuilders.delete(URL + "/id/" + givenStudent.getId())
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
     }
@@ -151,7 +419,7 @@ public class StudentResourceTest {
     @Test
     void whenDELETEIsCalledWithARegisteredEmailThenReturnNoContentStatus() throws Exception {
         doNothing().when(studentService).deleteByEmail(givenStudent.getEmail());
-        mockMvc.perform(MockMvcRequestBuilders.delete(URL + "/email/" + givenStudent.getEmail())
+        perform(MockMvcRequestBuilders.delete(URL + "/email/" + givenStudent.getEmail())
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNoContent());
     }
@@ -159,7 +427,7 @@ public class StudentResourceTest {
     @Test
     void whenDELETEIsCalledWithARegisteredEmailThenThrowStudentNotFoundException() throws Exception {
         doThrow(StudentNotFoundException.class).when(studentService).deleteByEmail(givenStudent.getEmail());
-        mockMvc.perform(MockMvcRequestBuilders.delete(URL + "/email/" + givenStudent.getEmail())
+        perform(MockMvcRequestBuilders.delete(URL + "/email/" + givenStudent.getEmail())
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
     }
@@ -167,12 +435,12 @@ public class StudentResourceTest {
     @Test
     void whenPUTIsCalledToUpdateDataStudentByARegisteredIdThenReturnOkStatus() throws Exception {
         when(studentService.updateById(givenStudent.getId(), expectedStudent)).thenReturn(expectedStudent);
-        mockMvc.perform(MockMvcRequestBuilders.put(URL + "/id/" + givenStudent.getId())
+        perform(MockMvcRequestBuilders.put(URL + "/id/" + givenStudent.getId())
         .contentType(MediaType.APPLICATION_JSON)
         .content(asJsonString(expectedStudent)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.name", is(expectedStudent.getName())))
-                .andExpect(jsonPath("$.birthDate", is(expectedStudent.getBirthDate().getTime())))
+                .andExpect(jsonPath("$.birthDate", is(expectedStudent.getBirthDate().toString())))
                 .andExpect(jsonPath("$.email", is(expectedStudent.getEmail())))
                 .andExpect(jsonPath("$.phone", is(expectedStudent.getPhone())))
                 .andExpect(jsonPath("$.attendance", is(expectedStudent.getAttendance())));
@@ -181,21 +449,43 @@ public class StudentResourceTest {
     @Test
     void whenPUTIsCalledToUpdateDataStudentByAnUnregisteredIdThenThrowStudentNotFoundException() throws Exception {
         when(studentService.updateById(givenStudent.getId(), expectedStudent)).thenThrow(StudentNotFoundException.class);
-        mockMvc.perform(MockMvcRequestBuilders.put(URL + "/id/" + givenStudent.getId())
+        perform(MockMvcRequestBuilders.put(URL + "/id/" + givenStudent.getId())
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(asJsonString(expectedStudent)))
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void whenPUTIsCalledWithIfMatchThenTheETagVersionIsRequired() throws Exception {
+        StudentDTO conditionalStudent = new StudentDTO(givenStudent);
+        conditionalStudent.setVersion(2L);
+        doThrow(StudentModifiedException.class).when(studentService).updateById(givenStudent.getId(), conditionalStudent);
+        perform(MockMvcRequestBuilders.put(URL + "/id/" + givenStudent.getId())
+                .header(HttpHeaders.IF_MATCH, "\"2-5\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(expectedStudent)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void whenPUTIsCalledWithAnUnknownIfMatchThenPreconditionFailedStatusIsReturned() throws Exception {
+        perform(MockMvcRequestBuilders.put(URL + "/id/" + givenStudent.getId())
+                .header(HttpHeaders.IF_MATCH, "W/\"abc\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(expectedStudent)))
+                .andExpect(status().isPreconditionFailed());
+        verify(studentService, never()).updateById(any(), any());
+    }
+
     @Test
     void whenPUTIsCalledToUpdateDataStudentByARegisteredEmailThenReturnOkStatus() throws Exception {
         when(studentService.updateByEmail(expectedStudent)).thenReturn(expectedStudent);
-        mockMvc.perform(MockMvcRequestBuilders.put(URL)
+        perform(MockMvcRequestBuilders.put(URL)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(asJsonString(expectedStudent)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.name", is(expectedStudent.getName())))
-                .andExpect(jsonPath("$.birthDate", is(expectedStudent.getBirthDate().getTime())))
+                .andExpect(jsonPath("$.birthDate", is(expectedStudent.getBirthDate().toString())))
                 .andExpect(jsonPath("$.email", is(expectedStudent.getEmail())))
                 .andExpect(jsonPath("$.phone", is(expectedStudent.getPhone())))
                 .andExpect(jsonPath("$.attendance", is(expectedStudent.getAttendance())));
@@ -204,7 +494,7 @@ public class StudentResourceTest {
     @Test
     void whenPUTIsCalledToUpdateDataStudentByAnUnregisteredEmailThenThrowStudentNotFoundException() throws Exception {
         when(studentService.updateByEmail(expectedStudent)).thenThrow(StudentNotFoundException.class);
-        mockMvc.perform(MockMvcRequestBuilders.put(URL)
+        perform(MockMvcRequestBuilders.put(URL)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(asJsonString(expectedStudent)))
                 .andExpect(status().isNotFound());
@@ -216,10 +506,11 @@ public class StudentResourceTest {
                 studentService.updateEmail(
                         givenStudent.getId(),
                         givenStudent.getEmail(),
-                        expectedStudent.getEmail()
+                        expectedStudent.getEmail(),
+                        null
                 )
         ).thenReturn(expectedStudent);
-        mockMvc.perform(MockMvcRequestBuilders.patch(
+        perform(MockMvcRequestBuilders.patch(
                 URL + "/" + givenStudent.getId() + "/" + givenStudent.getEmail() + "/" + expectedStudent.getEmail())
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
@@ -230,9 +521,10 @@ public class StudentResourceTest {
         doThrow(StudentNotFoundException.class).when(studentService).updateEmail(
                 givenStudent.getId(),
                 givenStudent.getEmail(),
-                expectedStudent.getEmail()
+                expectedStudent.getEmail(),
+                null
         );
-        mockMvc.perform(MockMvcRequestBuilders.patch(
+        perform(MockMvcRequestBuilders.patch(
                 URL + "/" + givenStudent.getId() + "/" + givenStudent.getEmail() + "/" + expectedStudent.getEmail())
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
@@ -241,7 +533,7 @@ public class StudentResourceTest {
     @Test
     void whenPATCHIsCalledToIncreaseStudentAttendanceWithARegisteredIdThenOkStatusIsReturned() throws Exception {
         when(studentService.increaseAttendance(givenStudent.getId())).thenReturn(expectedStudent);
-        mockMvc.perform(MockMvcRequestBuilders.patch(URL + "/" + givenStudent.getId())
+        perform(MockMvcRequestBuilders.patch(URL + "/" + givenStudent.getId())
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNoContent());
     }
@@ -249,16 +541,16 @@ public class StudentResourceTest {
     @Test
     void whenPATCHIsCalledToIncreaseStudentAttendanceWithAnUnregisteredIdThenThrowStudentNotFoundException() throws Exception {
         doThrow(StudentNotFoundException.class).when(studentService).increaseAttendance(givenStudent.getId());
-        mockMvc.perform(MockMvcRequestBuilders.patch(URL + "/" + givenStudent.getId())
+        perform(MockMvcRequestBuilders.patch(URL + "/" + givenStudent.getId())
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
     }
 
     @Test
     void whenGETIsCalledToFindByPartOfANameThenReturnOkStatus() throws Exception {
-        when(studentService.findByNameContainingIgnoreCase(givenStudent.getName()))
+        when(studentService.findByNameContainingIgnoreCase(givenStudent.getName(), PageRequest.of(0, StudentService.DEFAULT_SEARCH_SIZE)))
                 .thenReturn(Collections.singletonList(expectedStudent));
-        mockMvc.perform(MockMvcRequestBuilders.get(URL + "/search?name=" + givenStudent.getName())
+        perform(MockMvcRequestBuilders.get(URL + "/search?name=" + givenStudent.getName())
         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
     }
@@ -0,0 +1,96 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.repositories.StudentJdbcRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AttendanceCounterTest {
+
+    @Mock
+    private StudentJdbcRepository studentJdbcRepository;
+
+    @Mock
+    private StudentCache studentCache;
+
+    @InjectMocks
+    private AttendanceCounter attendanceCounter;
+
+    @Test
+    void whenConcurrentIncrementsAreGivenThenNoneIsLost() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for(int i = 0; i < 10_000; i++) executor.execute(() -> attendanceCounter.increment(1L));
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        assertThat(attendanceCounter.pending(1L), is(equalTo(10_000L)));
+    }
+
+    @Test
+    void whenFlushIsCalledThenPendingDeltasAreWrittenInOneBatchAndReset() {
+        attendanceCounter.increment(1L);
+        attendanceCounter.increment(1L);
+        attendanceCounter.increment(2L);
+        attendanceCounter.flush();
+        verify(studentJdbcRepository, times(1)).addAttendance(Map.of(1L, 2L, 2L, 1L));
+        verify(studentCache, times(1)).evict(1L);
+        verify(studentCache, times(1)).evict(2L);
+        assertThat(attendanceCounter.pending(1L), is(equalTo(0L)));
+    }
+
+    @Test
+    void whenThereIsNothingPendingThenFlushDoesNotTouchTheDatabase() {
+        attendanceCounter.flush();
+        verifyNoInteractions(studentJdbcRepository);
+    }
+
+    @Test
+    void whenFlushFailsThenPendingDeltasAreKept() {
+        attendanceCounter.increment(1L);
+        doThrow(new DataAccessResourceFailureException("database is down"))
+                .when(studentJdbcRepository).addAttendance(Map.of(1L, 1L));
+        assertThrows(DataAccessResourceFailureException.class, () -> attendanceCounter.flush());
+        assertThat(attendanceCounter.pending(1L), is(equalTo(1L)));
+    }
+
+    @Test
+    void whenAStudentIsDiscardedThenItsPendingDeltaIsDropped() {
+        attendanceCounter.increment(1L);
+        attendanceCounter.discard(1L);
+        assertThat(attendanceCounter.pending(1L), is(equalTo(0L)));
+    }
+
+    @Test
+    void whenDeltasAreFlushedThenTheEmptyOnesAreDropped() {
+        attendanceCounter.increment(1L);
+        attendanceCounter.flush();
+        assertThat(attendanceCounter.tracked(), is(equalTo(0)));
+        attendanceCounter.increment(1L);
+        assertThat(attendanceCounter.pending(1L), is(equalTo(1L)));
+    }
+
+    @Test
+    void whenAnOverwriteDiscardsTheDeltaThenTheNextFlushDoesNotWriteIt() {
+        attendanceCounter.increment(1L);
+        attendanceCounter.overwrite(() -> {
+            attendanceCounter.discard(1L);
+            return null;
+        });
+        attendanceCounter.flush();
+        verifyNoInteractions(studentJdbcRepository);
+    }
+}
@@ -0,0 +1,66 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.repositories.StudentJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.function.Consumer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailIndexTest {
+
+    @Mock
+    private StudentJdbcRepository studentJdbcRepository;
+
+    private EmailIndex emailIndex = new EmailIndex(1000, 0.01);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(emailIndex, "studentJdbcRepository", studentJdbcRepository);
+    }
+
+    @Test
+    void whenTheIndexIsNotFilledYetThenEveryEmailMayBeRegistered() {
+        assertThat(emailIndex.mightContain("pedroac@gmail.com"), is(true));
+    }
+
+    @Test
+    void whenTheIndexIsFilledThenOnlyUnknownEmailsAreCertainlyFree() {
+        givenTheRegisteredEmails("pedroac@gmail.com", "vascogama@gmail.com");
+        emailIndex.rebuild();
+        emailIndex.add("bartolomeu@gmail.com");
+        assertThat(emailIndex.mightContain("pedroac@gmail.com"), is(true));
+        assertThat(emailIndex.mightContain("bartolomeu@gmail.com"), is(true));
+        assertThat(emailIndex.mightContain("nicolau@gmail.com"), is(false));
+    }
+
+    @Test
+    void whenFalsePositivesAreRecordedThenTheyAreShownAsAShareOfTheFreeEmails() {
+        givenTheRegisteredEmails();
+        emailIndex.rebuild();
+        emailIndex.mightContain("pedroac@gmail.com");
+        emailIndex.mightContain("vascogama@gmail.com");
+        emailIndex.mightContain("bartolomeu@gmail.com");
+        emailIndex.falsePositives(1);
+        assertThat(emailIndex.falsePositiveRate(), is(closeTo(0.25, 0.0001)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenTheRegisteredEmails(String... emails) {
+        doAnswer(invocation -> {
+            Consumer<String> consumer = invocation.getArgument(0);
+            for(String email : emails) consumer.accept(email);
+            return null;
+        }).when(studentJdbcRepository).forEachEmail(any(Consumer.class));
+    }
+}
@@ -0,0 +1,105 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.repositories.StudentJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+public class NameSearchIndexTest {
+
+    @Mock
+    private StudentJdbcRepository studentJdbcRepository;
+
+    private NameSearchIndex nameSearchIndex = new NameSearchIndex();
+
+    @BeforeEach
+    void setUp() {
+        nameSearchIndex.index(1L, "Pedro Álvares Cabral");
+        nameSearchIndex.index(2L, "Vasco da Gama");
+        nameSearchIndex.index(3L, "Bartolomeu Dias");
+        nameSearchIndex.index(4L, "Pedro Escobar");
+        ReflectionTestUtils.setField(nameSearchIndex, "studentJdbcRepository", studentJdbcRepository);
+    }
+
+    @Test
+    void whenPartOfANameIsSearchedThenReturnTheMatchingIdsIgnoringCase() {
+        List<Long> ids = nameSearchIndex.search("PEDRO", 0, 10);
+        assertThat(ids, contains(1L, 4L));
+    }
+
+    @Test
+    void whenAllTrigramsMatchButTheTextDoesNotThenNothingIsReturned() {
+        List<Long> ids = nameSearchIndex.search("gama da", 0, 10);
+        assertThat(ids, is(empty()));
+    }
+
+    @Test
+    void whenAShortTextIsSearchedThenEveryNameContainingItIsReturned() {
+        List<Long> ids = nameSearchIndex.search("da", 0, 10);
+        assertThat(ids, contains(2L));
+    }
+
+    @Test
+    void whenAPageIsRequestedThenOffsetAndLimitAreApplied() {
+        assertThat(nameSearchIndex.search("", 1, 2), contains(2L, 3L));
+        assertThat(nameSearchIndex.search("pedro", 1, 1), contains(4L));
+    }
+
+    @Test
+    void whenANameChangesThenOnlyTheNewNameMatches() {
+        nameSearchIndex.index(4L, "Nicolau Coelho");
+        assertThat(nameSearchIndex.search("escobar", 0, 10), is(empty()));
+        assertThat(nameSearchIndex.search("coelho", 0, 10), contains(4L));
+    }
+
+    @Test
+    void whenAStudentIsRemovedThenItIsNoLongerFound() {
+        nameSearchIndex.remove(1L);
+        assertThat(nameSearchIndex.search("cabral", 0, 10), is(empty()));
+        assertThat(nameSearchIndex.size(), is(equalTo(3)));
+    }
+
+    @Test
+    void whenEveryStudentOfATrigramIsRemovedThenTheTrigramIsDropped() {
+        int grams = nameSearchIndex.gramCount();
+        nameSearchIndex.remove(2L);
+        assertThat(nameSearchIndex.search("gama", 0, 10), is(empty()));
+        assertThat(nameSearchIndex.gramCount(), is(lessThan(grams)));
+        nameSearchIndex.remove(1L);
+        nameSearchIndex.remove(3L);
+        nameSearchIndex.remove(4L);
+        assertThat(nameSearchIndex.gramCount(), is(equalTo(0)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenTheIndexIsRebuiltThenOnlyTheStoredNamesAndTheChangesMadeMeanwhileAreKept() {
+        doAnswer(invocation -> {
+            BiConsumer<Long, String> consumer = invocation.getArgument(0);
+            consumer.accept(1L, "Pedro Álvares Cabral");
+            nameSearchIndex.index(2L, "Nicolau Coelho");
+            consumer.accept(2L, "Vasco da Gama");
+            nameSearchIndex.remove(1L);
+            return null;
+        }).when(studentJdbcRepository).forEachName(any(BiConsumer.class));
+        nameSearchIndex.rebuild();
+        assertThat(nameSearchIndex.isReady(), is(true));
+        assertThat(nameSearchIndex.search("", 0, 10), contains(2L));
+        assertThat(nameSearchIndex.search("coelho", 0, 10), contains(2L));
+        assertThat(nameSearchIndex.search("gama", 0, 10), is(empty()));
+        assertThat(nameSearchIndex.search("escobar", 0, 10), is(empty()));
+    }
+}
@@ -0,0 +1,114 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import com.bruno.studentsmanagement.entities.StudentRecord;
+import com.bruno.studentsmanagement.repositories.ReactiveStudentRepository;
+import com.bruno.studentsmanagement.services.exceptions.EmailAlreadyRegisteredException;
+import com.bruno.studentsmanagement.services.exceptions.StudentInconsistencyException;
+import com.bruno.studentsmanagement.services.exceptions.StudentNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveStudentServiceTest {
+
+    private StudentRecord givenStudent = new StudentRecord(
+            1L, "Pedro Álvares Cabral",
+            LocalDate.of(1467, 1, 1),
+            "pedroac@gmail.com",
+            "(11) 98741-3652",
+            0, 0L
+    );
+    private StudentDTO expectedStudent = ReactiveStudentService.toDTO(givenStudent);
+
+    @Mock
+    private ReactiveStudentRepository reactiveStudentRepository;
+
+    @Spy
+    private EmailIndex emailIndex = new EmailIndex(1000, 0.01);
+
+    @InjectMocks
+    private ReactiveStudentService reactiveStudentService;
+
+    @Test
+    void whenANewStudentIsGivenThenItMustBeCreated() {
+        when(reactiveStudentRepository.findByEmail(givenStudent.getEmail())).thenReturn(Mono.empty());
+        when(reactiveStudentRepository.save(givenStudent)).thenReturn(Mono.just(givenStudent));
+        StepVerifier.create(reactiveStudentService.save(expectedStudent))
+                .assertNext(studentDTO -> assertThat(studentDTO, is(equalTo(expectedStudent))))
+                .verifyComplete();
+    }
+
+    @Test
+    void whenCreatingANewStudentAnEmailAccountIsAlreadyRegisteredThenEmitAnError() {
+        when(reactiveStudentRepository.findByEmail(givenStudent.getEmail())).thenReturn(Mono.just(givenStudent));
+        StepVerifier.create(reactiveStudentService.save(expectedStudent))
+                .verifyError(EmailAlreadyRegisteredException.class);
+        verify(reactiveStudentRepository, never()).save(any());
+    }
+
+    @Test
+    void whenAnUnregisteredIdIsGivenThenEmitStudentNotFound() {
+        when(reactiveStudentRepository.findById(2L)).thenReturn(Mono.empty());
+        StepVerifier.create(reactiveStudentService.findById(2L))
+                .verifyError(StudentNotFoundException.class);
+    }
+
+    @Test
+    void whenMoreStudentsThanTheLimitExistThenTheLastIdOfThePageIsTheNextCursor() {
+        StudentRecord secondStudent = new StudentRecord(
+                2L, "Vasco da Gama", givenStudent.getBirthDate(), "vasco@gmail.com", "(11) 98741-3653", 0, 0L
+        );
+        when(reactiveStudentRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 2)))
+                .thenReturn(Flux.just(givenStudent, secondStudent));
+        StepVerifier.create(reactiveStudentService.findAll(null, 1))
+                .assertNext(page -> {
+                    assertThat(page.getContent(), contains(expectedStudent));
+                    assertThat(page.getNextCursor(), is(equalTo(1L)));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void whenTheEmailDoesNotBelongToTheStudentThenEmitAnInconsistencyError() {
+        when(reactiveStudentRepository.findById(givenStudent.getId())).thenReturn(Mono.just(givenStudent));
+        StepVerifier.create(reactiveStudentService.updateEmail(givenStudent.getId(), "other@gmail.com", "new@gmail.com"))
+                .verifyError(StudentInconsistencyException.class);
+    }
+
+    @Test
+    void whenAttendanceIsIncreasedThenASingleUpdateIsIssued() {
+        StudentRecord updatedStudent = new StudentRecord(
+                1L, givenStudent.getName(), givenStudent.getBirthDate(), givenStudent.getEmail(), givenStudent.getPhone(), 1, 0L
+        );
+        when(reactiveStudentRepository.increaseAttendance(1L)).thenReturn(Mono.just(1));
+        when(reactiveStudentRepository.findById(1L)).thenReturn(Mono.just(updatedStudent));
+        StepVerifier.create(reactiveStudentService.increaseAttendance(1L))
+                .assertNext(studentDTO -> assertThat(studentDTO.getAttendance(), is(equalTo(1))))
+                .verifyComplete();
+        verify(reactiveStudentRepository, never()).save(any());
+    }
+
+    @Test
+    void whenAttendanceIsIncreasedForAnUnregisteredIdThenEmitStudentNotFound() {
+        when(reactiveStudentRepository.increaseAttendance(2L)).thenReturn(Mono.just(0));
+        StepVerifier.create(reactiveStudentService.increaseAttendance(2L))
+                .verifyError(StudentNotFoundException.class);
+    }
+}
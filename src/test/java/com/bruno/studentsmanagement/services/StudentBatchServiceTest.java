@@ -0,0 +1,161 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.dto.BatchErrorDTO;
+import com.bruno.studentsmanagement.dto.BatchResultDTO;
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import com.bruno.studentsmanagement.repositories.StudentJdbcRepository;
+import com.bruno.studentsmanagement.repositories.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.validation.Validation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static com.bruno.studentsmanagement.utils.DateConverterUtil.convertDate;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StudentBatchServiceTest {
+
+    private StudentDTO firstStudent = new StudentDTO(
+            null, "Pedro Álvares Cabral",
+            convertDate("1467-01-01"),
+            "pedroac@gmail.com",
+            "(11) 98741-3652",
+            null, null
+    );
+
+    private StudentDTO secondStudent = new StudentDTO(
+            null, "Vasco da Gama",
+            convertDate("1469-01-01"),
+            "vascogama@gmail.com",
+            "(11) 98741-3653",
+            null, null
+    );
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private StudentJdbcRepository studentJdbcRepository;
+
+    @Mock
+    private NameSearchIndex nameSearchIndex;
+
+    @Spy
+    private StudentValidator studentValidator = new StudentValidator(
+            Validation.buildDefaultValidatorFactory().getValidator(), 2
+    );
+
+    @Spy
+    private EmailIndex emailIndex = new EmailIndex(1000, 0.01);
+
+    @InjectMocks
+    private StudentBatchService studentBatchService;
+
+    @Test
+    void whenValidStudentsAreGivenThenTheyMustBeInsertedInOneBatch() {
+        when(studentRepository.findRegisteredEmails(Set.of(firstStudent.getEmail(), secondStudent.getEmail())))
+                .thenReturn(Collections.emptySet());
+        BatchResultDTO result = studentBatchService.saveAll(Arrays.asList(firstStudent, secondStudent).iterator());
+        assertThat(result.getReceived(), is(equalTo(2L)));
+        assertThat(result.getInserted(), is(equalTo(2L)));
+        assertThat(result.getErrors(), is(empty()));
+        verify(studentJdbcRepository, times(1))
+                .insertAll(Arrays.asList(firstStudent, secondStudent), StudentBatchService.DEFAULT_BATCH_SIZE);
+    }
+
+    @Test
+    void whenAnInvalidStudentIsGivenThenItIsReportedAndTheOthersAreInserted() {
+        firstStudent.setName("");
+        when(studentRepository.findRegisteredEmails(Set.of(secondStudent.getEmail())))
+                .thenReturn(Collections.emptySet());
+        BatchResultDTO result = studentBatchService.saveAll(Arrays.asList(firstStudent, secondStudent).iterator());
+        assertThat(result.getInserted(), is(equalTo(1L)));
+        assertThat(result.getErrors().get(0).getIndex(), is(equalTo(0L)));
+        assertThat(result.getErrors().get(0).getErrors().get(0).getFieldName(), is(equalTo("name")));
+        verify(studentJdbcRepository, times(1))
+                .insertAll(Collections.singletonList(secondStudent), StudentBatchService.DEFAULT_BATCH_SIZE);
+    }
+
+    @Test
+    void whenARegisteredEmailIsGivenThenItIsReportedAndTheOthersAreInserted() {
+        when(studentRepository.findRegisteredEmails(Set.of(firstStudent.getEmail(), secondStudent.getEmail())))
+                .thenReturn(Set.of(secondStudent.getEmail()));
+        BatchResultDTO result = studentBatchService.saveAll(Arrays.asList(firstStudent, secondStudent).iterator());
+        assertThat(result.getInserted(), is(equalTo(1L)));
+        assertThat(result.getErrors().get(0).getIndex(), is(equalTo(1L)));
+        assertThat(result.getErrors().get(0).getEmail(), is(equalTo(secondStudent.getEmail())));
+        verify(studentJdbcRepository, times(1))
+                .insertAll(Collections.singletonList(firstStudent), StudentBatchService.DEFAULT_BATCH_SIZE);
+    }
+
+    @Test
+    void whenTheEmailIndexKnowsTheEmailsAreFreeThenTheyAreNotLookedUp() {
+        ReflectionTestUtils.setField(emailIndex, "ready", true);
+        BatchResultDTO result = studentBatchService.saveAll(Arrays.asList(firstStudent, secondStudent).iterator());
+        assertThat(result.getInserted(), is(equalTo(2L)));
+        verify(studentRepository, never()).findRegisteredEmails(any());
+        assertThat(emailIndex.mightContain(firstStudent.getEmail()), is(true));
+    }
+
+    @Test
+    void whenStudentsSpanSeveralChunksThenErrorsAreStreamedWithTheirIndexInTheInput() {
+        ReflectionTestUtils.setField(studentBatchService, "batchSize", 1);
+        secondStudent.setName("");
+        when(studentRepository.findRegisteredEmails(Set.of(firstStudent.getEmail())))
+                .thenReturn(Collections.emptySet());
+        List<BatchErrorDTO> errors = new ArrayList<>();
+        BatchResultDTO result = studentBatchService.saveAll(Arrays.asList(firstStudent, secondStudent).iterator(), errors::add);
+        assertThat(result.getReceived(), is(equalTo(2L)));
+        assertThat(result.getInserted(), is(equalTo(1L)));
+        assertThat(result.getErrors(), is(empty()));
+        assertThat(errors.get(0).getIndex(), is(equalTo(1L)));
+        verify(studentJdbcRepository, times(1)).insertAll(Collections.singletonList(firstStudent), 1);
+    }
+
+    @Test
+    void whenAnEmailIsRepeatedInTheBatchThenOnlyTheFirstOccurrenceIsInserted() {
+        secondStudent.setEmail(firstStudent.getEmail());
+        when(studentRepository.findRegisteredEmails(Set.of(firstStudent.getEmail())))
+                .thenReturn(Collections.emptySet());
+        BatchResultDTO result = studentBatchService.saveAll(Arrays.asList(firstStudent, secondStudent).iterator());
+        assertThat(result.getInserted(), is(equalTo(1L)));
+        assertThat(result.getErrors().get(0).getIndex(), is(equalTo(1L)));
+        verify(studentJdbcRepository, times(1))
+                .insertAll(Collections.singletonList(firstStudent), StudentBatchService.DEFAULT_BATCH_SIZE);
+    }
+
+    @Test
+    void whenTheBatchIsRejectedThenTheStudentsAreRetriedOneByOneAndOnlyTheOffendingOneIsReported() {
+        when(studentRepository.findRegisteredEmails(Set.of(firstStudent.getEmail(), secondStudent.getEmail())))
+                .thenReturn(Collections.emptySet());
+        doThrow(new DataIntegrityViolationException(StudentServiceTest.EMAIL_TAKEN))
+                .when(studentJdbcRepository)
+                .insertAll(Arrays.asList(firstStudent, secondStudent), StudentBatchService.DEFAULT_BATCH_SIZE);
+        lenient().doThrow(new DataIntegrityViolationException(StudentServiceTest.EMAIL_TAKEN))
+                .when(studentJdbcRepository)
+                .insertAll(Collections.singletonList(secondStudent), StudentBatchService.DEFAULT_BATCH_SIZE);
+        BatchResultDTO result = studentBatchService.saveAll(Arrays.asList(firstStudent, secondStudent).iterator());
+        assertThat(result.getInserted(), is(equalTo(1L)));
+        assertThat(result.getErrors(), hasSize(1));
+        assertThat(result.getErrors().get(0).getIndex(), is(equalTo(1L)));
+        assertThat(result.getErrors().get(0).getErrors().get(0).getFieldName(), is(equalTo("email")));
+        verify(studentJdbcRepository, times(1))
+                .insertAll(Collections.singletonList(firstStudent), StudentBatchService.DEFAULT_BATCH_SIZE);
+        verify(studentJdbcRepository, times(1)).forEachNameByEmail(eq(List.of(firstStudent.getEmail())), any());
+    }
+}
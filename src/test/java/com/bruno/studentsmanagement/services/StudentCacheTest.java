@@ -0,0 +1,82 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static com.bruno.studentsmanagement.utils.DateConverterUtil.convertDate;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.core.Is.is;
+
+public class StudentCacheTest {
+
+    private StudentDTO givenStudent = new StudentDTO(
+            1L, "Pedro Álvares Cabral",
+            convertDate("1467-01-01"),
+            "pedroac@gmail.com",
+            "(11) 98741-3652",
+            0, 0L
+    );
+
+    private StudentCache studentCache = new StudentCache(true, 100, Duration.ofMinutes(5));
+
+    @Test
+    void whenAStudentIsPutThenItCanBeFoundByIdAndByEmail() {
+        studentCache.put(givenStudent);
+        assertThat(studentCache.getById(givenStudent.getId()), is(equalTo(Optional.of(givenStudent))));
+        assertThat(studentCache.getByEmail(givenStudent.getEmail()), is(equalTo(Optional.of(givenStudent))));
+        assertThat(studentCache.stats().hitCount(), is(equalTo(2L)));
+    }
+
+    @Test
+    void whenACachedStudentIsModifiedByTheCallerThenTheCachedCopyIsUnchanged() {
+        studentCache.put(givenStudent);
+        StudentDTO studentDTO = studentCache.getById(givenStudent.getId()).orElseThrow();
+        studentDTO.setName("Vasco da Gama");
+        assertThat(studentCache.getById(givenStudent.getId()).orElseThrow().getName(), is(equalTo(givenStudent.getName())));
+    }
+
+    @Test
+    void whenAStudentIsEvictedByIdThenItIsNoLongerFoundByEmail() {
+        studentCache.put(givenStudent);
+        studentCache.evict(givenStudent.getId());
+        assertThat(studentCache.getById(givenStudent.getId()), is(equalTo(Optional.empty())));
+        assertThat(studentCache.getByEmail(givenStudent.getEmail()), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void whenAStudentEmailChangesThenTheOldEmailIsNoLongerFound() {
+        studentCache.put(givenStudent);
+        StudentDTO updatedStudent = studentCache.getById(givenStudent.getId()).orElseThrow();
+        updatedStudent.setEmail("cabral@gmail.com");
+        studentCache.put(updatedStudent);
+        assertThat(studentCache.getByEmail(givenStudent.getEmail()), is(equalTo(Optional.empty())));
+        assertThat(studentCache.getByEmail(updatedStudent.getEmail()), is(equalTo(Optional.of(updatedStudent))));
+    }
+
+    @Test
+    void whenAStudentIsLoadedWithoutWritesMeanwhileThenItIsCached() {
+        long generation = studentCache.generation();
+        studentCache.putIfUnchanged(givenStudent, generation);
+        assertThat(studentCache.getById(givenStudent.getId()), is(equalTo(Optional.of(givenStudent))));
+    }
+
+    @Test
+    void whenTheStudentIsWrittenWhileItIsLoadedThenTheLoadedStudentIsNotCached() {
+        long generation = studentCache.generation();
+        studentCache.evict(givenStudent.getId());
+        studentCache.putIfUnchanged(givenStudent, generation);
+        assertThat(studentCache.getById(givenStudent.getId()), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    void whenTheCacheIsDisabledThenNothingIsCached() {
+        StudentCache disabledCache = new StudentCache(false, 100, Duration.ofMinutes(5));
+        disabledCache.put(givenStudent);
+        assertThat(disabledCache.getById(givenStudent.getId()), is(equalTo(Optional.empty())));
+        assertThat(disabledCache.size(), is(equalTo(0L)));
+    }
+}
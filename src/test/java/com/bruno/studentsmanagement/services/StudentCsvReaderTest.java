@@ -0,0 +1,66 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import com.bruno.studentsmanagement.services.exceptions.InvalidImportException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static com.bruno.studentsmanagement.utils.DateConverterUtil.convertDate;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StudentCsvReaderTest {
+
+    @Test
+    void whenColumnsAreInAnyOrderThenTheyAreMatchedByTheHeader() {
+        StudentCsvReader students = reader("email,phone,id,name,birthDate\r\n"
+                + "pedroac@gmail.com,(11) 98741-3652,7,\"Cabral, Pedro \"\"Álvares\"\"\",1467-01-01\r\n");
+        StudentDTO student = students.next();
+        assertThat(student.getName(), is(equalTo("Cabral, Pedro \"Álvares\"")));
+        assertThat(student.getBirthDate(), is(equalTo(convertDate("1467-01-01"))));
+        assertThat(student.getEmail(), is(equalTo("pedroac@gmail.com")));
+        assertThat(student.getPhone(), is(equalTo("(11) 98741-3652")));
+        assertThat(student.getId(), is(nullValue()));
+        assertThat(students.hasNext(), is(false));
+    }
+
+    @Test
+    void whenAValueCannotBeConvertedOrIsMissingThenItIsLeftEmpty() {
+        StudentCsvReader students = reader("name,birthDate,email,phone\n\nVasco da Gama,01/01/1469\n");
+        StudentDTO student = students.next();
+        assertThat(student.getName(), is(equalTo("Vasco da Gama")));
+        assertThat(student.getBirthDate(), is(nullValue()));
+        assertThat(student.getEmail(), is(nullValue()));
+        assertThat(students.hasNext(), is(false));
+    }
+
+    @Test
+    void whenTheHeaderStartsWithAByteOrderMarkThenItIsIgnored() {
+        StudentCsvReader students = reader("\uFEFFname,birthDate,email,phone\nVasco da Gama,1469-01-01,vasco@gmail.com,\n");
+        assertThat(students.next().getName(), is(equalTo("Vasco da Gama")));
+    }
+
+    @Test
+    void whenTheInputEndsInsideAQuotedFieldThenThatRecordIsLeftEmpty() {
+        StudentCsvReader students = reader("name,birthDate,email,phone\n"
+                + "Vasco da Gama,1469-01-01,vasco@gmail.com,\n"
+                + "\"Cabral, Pedro,1467-01-01,pedroac@gmail.com,\n");
+        assertThat(students.next().getEmail(), is(equalTo("vasco@gmail.com")));
+        StudentDTO student = students.next();
+        assertThat(student.getName(), is(nullValue()));
+        assertThat(student.getEmail(), is(nullValue()));
+        assertThat(students.hasNext(), is(false));
+    }
+
+    @Test
+    void whenTheHeaderLacksAStudentColumnThenThrowInvalidImportException() {
+        assertThrows(InvalidImportException.class, () -> reader("name,birthDate,email\n"));
+    }
+
+    private static StudentCsvReader reader(String csv) {
+        return new StudentCsvReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,77 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import com.bruno.studentsmanagement.repositories.StudentJdbcRepository;
+import com.bruno.studentsmanagement.services.exceptions.UnsupportedFormatException;
+import com.bruno.studentsmanagement.utils.JsonConvertionUtil;
+import com.bruno.studentsmanagement.utils.StudentJson;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import static com.bruno.studentsmanagement.utils.DateConverterUtil.convertDate;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StudentExportServiceTest {
+
+    private StudentDTO givenStudent = new StudentDTO(
+            1L, "Cabral, Pedro \"Álvares\"",
+            convertDate("1467-01-01"),
+            "pedroac@gmail.com",
+            "(11) 98741-3652",
+            3, 0L
+    );
+
+    @Mock
+    private StudentJdbcRepository studentJdbcRepository;
+
+    @Spy
+    private StudentJson studentJson = JsonConvertionUtil.studentJson();
+
+    @InjectMocks
+    private StudentExportService studentExportService;
+
+    @Test
+    void whenCsvIsExportedThenSeparatorsAndQuotesInFieldsAreEscaped() throws Exception {
+        givenTheStudentTable();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        studentExportService.exportAll(StudentExportService.Format.CSV, outputStream);
+        assertThat(outputStream.toString(StandardCharsets.UTF_8), is(equalTo(StudentExportService.CSV_HEADER
+                + "1,\"Cabral, Pedro \"\"Álvares\"\"\",1467-01-01,pedroac@gmail.com,(11) 98741-3652,3\n")));
+    }
+
+    @Test
+    void whenNdjsonIsExportedThenEveryStudentIsOneJsonLine() throws Exception {
+        givenTheStudentTable();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        studentExportService.exportAll(StudentExportService.Format.NDJSON, outputStream);
+        String ndjson = outputStream.toString(StandardCharsets.UTF_8);
+        assertThat(ndjson, startsWith("{\"id\":1,"));
+        assertThat(ndjson, containsString("\"birthDate\":\"1467-01-01\""));
+        assertThat(ndjson, endsWith("}\n"));
+    }
+
+    @Test
+    void whenAnUnknownFormatIsGivenThenThrowUnsupportedFormatException() {
+        assertThrows(UnsupportedFormatException.class, () -> StudentExportService.Format.of("xml"));
+    }
+
+    private void givenTheStudentTable() {
+        doAnswer(invocation -> {
+            Consumer<StudentDTO> consumer = invocation.getArgument(0);
+            consumer.accept(givenStudent);
+            return null;
+        }).when(studentJdbcRepository).forEachStudent(any());
+    }
+}
@@ -0,0 +1,160 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import com.bruno.studentsmanagement.entities.Student;
+import com.bruno.studentsmanagement.repositories.StudentRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.bruno.studentsmanagement.utils.DateConverterUtil.convertDate;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.core.Is.is;
+
+/**
+ * Reads students straight from the repository, through Hibernate's second-level and query caches,
+ * around every write of {@link StudentService}, and asserts no write leaves a stale entry behind.
+ */
+@SpringBootTest
+public class StudentSecondLevelCacheTest {
+
+    private static final AtomicInteger NEXT_STUDENT = new AtomicInteger();
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private AttendanceCounter attendanceCounter;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void whenAQueryIsRepeatedThenItIsAnsweredFromTheQueryCache() {
+        StudentDTO studentDTO = studentService.save(newStudent());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        studentRepository.findDTOByEmail(studentDTO.getEmail());
+        long hits = statistics.getQueryCacheHitCount();
+        studentRepository.findDTOByEmail(studentDTO.getEmail());
+        assertThat(statistics.getQueryCacheHitCount(), is(greaterThan(hits)));
+        studentRepository.findById(studentDTO.getId());
+        long entityHits = statistics.getDomainDataRegionStatistics(Student.CACHE_REGION).getHitCount();
+        studentRepository.findById(studentDTO.getId());
+        assertThat(statistics.getDomainDataRegionStatistics(Student.CACHE_REGION).getHitCount(), is(greaterThan(entityHits)));
+    }
+
+    @Test
+    void whenAStudentIsSavedThenCachedSearchesFindIt() {
+        StudentDTO studentDTO = newStudent();
+        String name = studentDTO.getName();
+        assertThat(searchByName(name), is(empty()));
+        studentService.save(studentDTO);
+        assertThat(searchByName(name), hasSize(1));
+    }
+
+    @Test
+    void whenAStudentIsUpdatedByIdThenCachedReadsSeeTheChange() {
+        StudentDTO studentDTO = cached(studentService.save(newStudent()));
+        StudentDTO changes = newStudent();
+        changes.setEmail(studentDTO.getEmail());
+        studentService.updateById(studentDTO.getId(), changes);
+        assertThat(studentRepository.findDTOByEmail(studentDTO.getEmail()).orElseThrow().getName(), is(equalTo(changes.getName())));
+        assertThat(studentRepository.findById(studentDTO.getId()).orElseThrow().getName(), is(equalTo(changes.getName())));
+        assertThat(searchByName(studentDTO.getName()), is(empty()));
+    }
+
+    @Test
+    void whenAStudentIsUpdatedByEmailThenCachedReadsSeeTheChange() {
+        StudentDTO studentDTO = cached(studentService.save(newStudent()));
+        StudentDTO changes = newStudent();
+        changes.setEmail(studentDTO.getEmail());
+        studentService.updateByEmail(changes);
+        assertThat(studentRepository.findDTOById(studentDTO.getId()).orElseThrow().getName(), is(equalTo(changes.getName())));
+        assertThat(studentRepository.findByEmail(studentDTO.getEmail()).orElseThrow().getName(), is(equalTo(changes.getName())));
+    }
+
+    @Test
+    void whenAnEmailIsUpdatedThenCachedReadsByTheOldEmailFindNothing() {
+        StudentDTO studentDTO = cached(studentService.save(newStudent()));
+        String newEmail = newStudent().getEmail();
+        studentService.updateEmail(studentDTO.getId(), studentDTO.getEmail(), newEmail, null);
+        assertThat(studentRepository.findDTOByEmail(studentDTO.getEmail()), is(Optional.empty()));
+        assertThat(studentRepository.findById(studentDTO.getId()).orElseThrow().getEmail(), is(equalTo(newEmail)));
+    }
+
+    @Test
+    void whenAStudentIsDeletedThenCachedReadsFindNothing() {
+        StudentDTO byId = cached(studentService.save(newStudent()));
+        StudentDTO byEmail = cached(studentService.save(newStudent()));
+        studentService.deleteById(byId.getId());
+        studentService.deleteByEmail(byEmail.getEmail());
+        for(StudentDTO studentDTO : List.of(byId, byEmail)){
+            assertThat(studentRepository.findById(studentDTO.getId()), is(Optional.empty()));
+            assertThat(studentRepository.findDTOByEmail(studentDTO.getEmail()), is(Optional.empty()));
+            assertThat(searchByName(studentDTO.getName()), is(empty()));
+        }
+    }
+
+    @Test
+    void whenAttendanceIsFlushedThenCachedReadsSeeIt() {
+        StudentDTO studentDTO = cached(studentService.save(newStudent()));
+        studentService.increaseAttendance(studentDTO.getId());
+        attendanceCounter.flush();
+        assertThat(studentRepository.findDTOById(studentDTO.getId()).orElseThrow().getAttendance(), is(equalTo(1)));
+        assertThat(studentRepository.findById(studentDTO.getId()).orElseThrow().getAttendance(), is(equalTo(1)));
+        assertThat(studentRepository.findById(studentDTO.getId()).orElseThrow().getVersion(), is(equalTo(studentDTO.getVersion() + 1)));
+    }
+
+    @Test
+    void whenAStudentIsWrittenOutsideHibernateThenItsQuerySpaceIsInvalidatedBeforeAndAfterTheCommit() {
+        StudentDTO studentDTO = cached(studentService.save(newStudent()));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long puts = statistics.getUpdateTimestampsCachePutCount();
+        StudentDTO changes = newStudent();
+        changes.setEmail(studentDTO.getEmail());
+        studentService.updateByEmail(changes);
+        assertThat(statistics.getUpdateTimestampsCachePutCount(), is(greaterThanOrEqualTo(puts + 2)));
+        long hits = statistics.getQueryCacheHitCount();
+        assertThat(studentRepository.findDTOByEmail(studentDTO.getEmail()).orElseThrow().getName(), is(equalTo(changes.getName())));
+        assertThat(statistics.getQueryCacheHitCount(), is(equalTo(hits)));
+    }
+
+    /**
+     * Puts the student in every cache a read may be answered from.
+     */
+    private StudentDTO cached(StudentDTO studentDTO){
+        studentRepository.findById(studentDTO.getId());
+        studentRepository.findByEmail(studentDTO.getEmail());
+        studentRepository.findDTOById(studentDTO.getId());
+        studentRepository.findDTOByEmail(studentDTO.getEmail());
+        assertThat(searchByName(studentDTO.getName()), hasSize(1));
+        return studentDTO;
+    }
+
+    private List<StudentDTO> searchByName(String name){
+        return studentRepository.findDTOByNameContainingIgnoreCase(name, PageRequest.of(0, StudentService.DEFAULT_SEARCH_SIZE));
+    }
+
+    private static StudentDTO newStudent(){
+        int i = NEXT_STUDENT.incrementAndGet();
+        return new StudentDTO(
+                null, "Second Level Student " + i + "x",
+                convertDate("1467-01-01"),
+                "second-level-" + i + "@gmail.com",
+                "(11) 98741-3652",
+                0, null
+        );
+    }
+}
@@ -0,0 +1,122 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import com.bruno.studentsmanagement.metrics.QueryCount;
+import com.bruno.studentsmanagement.services.exceptions.EmailAlreadyRegisteredException;
+import com.bruno.studentsmanagement.services.exceptions.StudentNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.bruno.studentsmanagement.utils.DateConverterUtil.convertDate;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Asserts how many SQL statements each write path of {@link StudentService} issues,
+ * counted at the JDBC level like the per-request metric.
+ */
+@SpringBootTest
+public class StudentServiceQueryCountTest {
+
+    private static final AtomicInteger NEXT_STUDENT = new AtomicInteger();
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentCache studentCache;
+
+    private QueryCount queryCount;
+
+    @AfterEach
+    void stopCounting() {
+        if(queryCount != null) queryCount.close();
+    }
+
+    @Test
+    void whenAStudentIsUpdatedByIdThenTheUpdateAndOneReadAreIssued() {
+        StudentDTO studentDTO = studentService.save(newStudent());
+        StudentDTO changes = newStudent();
+        queryCount = QueryCount.start();
+        StudentDTO updatedStudent = studentService.updateById(studentDTO.getId(), changes);
+        assertThat(queryCount.get(), is(equalTo(2L)));
+        assertThat(studentService.findById(studentDTO.getId()).getEmail(), is(equalTo(updatedStudent.getEmail())));
+    }
+
+    @Test
+    void whenAnUncachedStudentIsUpdatedByIdKeepingItsAttendanceThenTheUpdateAndOneReadAreIssued() {
+        StudentDTO studentDTO = studentService.save(newStudent());
+        studentCache.clear();
+        StudentDTO changes = newStudent();
+        changes.setAttendance(null);
+        queryCount = QueryCount.start();
+        StudentDTO updatedStudent = studentService.updateById(studentDTO.getId(), changes);
+        assertThat(queryCount.get(), is(equalTo(2L)));
+        assertThat(updatedStudent.getVersion(), is(equalTo(studentDTO.getVersion() + 1)));
+        assertThat(updatedStudent.getEmail(), is(equalTo(changes.getEmail())));
+    }
+
+    @Test
+    void whenAnUncachedStudentIsUpdatedByEmailThenTheUpdateAndOneReadAreIssued() {
+        StudentDTO studentDTO = studentService.save(newStudent());
+        studentCache.clear();
+        StudentDTO changes = newStudent();
+        changes.setEmail(studentDTO.getEmail());
+        changes.setAttendance(null);
+        queryCount = QueryCount.start();
+        StudentDTO updatedStudent = studentService.updateByEmail(changes);
+        assertThat(queryCount.get(), is(equalTo(2L)));
+        assertThat(updatedStudent.getId(), is(equalTo(studentDTO.getId())));
+        assertThat(updatedStudent.getAttendance(), is(equalTo(0)));
+    }
+
+    @Test
+    void whenAnEmailIsTakenByAnotherStudentThenTheUpdateFailsInASingleStatement() {
+        StudentDTO studentDTO = studentService.save(newStudent());
+        StudentDTO otherStudent = studentService.save(newStudent());
+        queryCount = QueryCount.start();
+        assertThrows(EmailAlreadyRegisteredException.class,
+                () -> studentService.updateEmail(studentDTO.getId(), studentDTO.getEmail(), otherStudent.getEmail(), null));
+        assertThat(queryCount.get(), is(equalTo(1L)));
+    }
+
+    @Test
+    void whenACachedStudentEmailIsUpdatedThenTheUpdateAndOneReadAreIssued() {
+        StudentDTO studentDTO = studentService.save(newStudent());
+        String newEmail = newStudent().getEmail();
+        queryCount = QueryCount.start();
+        StudentDTO updatedStudent = studentService.updateEmail(studentDTO.getId(), studentDTO.getEmail(), newEmail, null);
+        assertThat(queryCount.get(), is(equalTo(2L)));
+        assertThat(updatedStudent.getEmail(), is(equalTo(newEmail)));
+    }
+
+    @Test
+    void whenAStudentIsDeletedThenASingleStatementIsIssued() {
+        StudentDTO byId = studentService.save(newStudent());
+        StudentDTO byEmail = studentService.save(newStudent());
+        queryCount = QueryCount.start();
+        studentService.deleteById(byId.getId());
+        assertThat(queryCount.get(), is(equalTo(1L)));
+        queryCount = QueryCount.start();
+        studentService.deleteByEmail(byEmail.getEmail());
+        assertThat(queryCount.get(), is(equalTo(1L)));
+        assertThrows(StudentNotFoundException.class, () -> studentService.deleteById(byId.getId()));
+    }
+
+    private static StudentDTO newStudent(){
+        int i = NEXT_STUDENT.incrementAndGet();
+        return new StudentDTO(
+                null, "Pedro Álvares Cabral " + i,
+                convertDate("1467-01-01"),
+                "query-count-" + i + "@gmail.com",
+                "(11) 98741-3652",
+                0, null
+        );
+    }
+}
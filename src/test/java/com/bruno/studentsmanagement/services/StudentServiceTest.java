@@ -1,19 +1,32 @@
 package com.bruno.studentsmanagement.services;
 
+import com.bruno.studentsmanagement.dto.CursorPageDTO;
 import com.bruno.studentsmanagement.dto.StudentDTO;
 import com.bruno.studentsmanagement.entities.Student;
+import com.bruno.studentsmanagement.repositories.StudentJdbcRepository;
 import com.bruno.studentsmanagement.repositories.StudentRepository;
 import com.bruno.studentsmanagement.services.exceptions.EmailAlreadyRegisteredException;
+import com.bruno.studentsmanagement.services.exceptions.StudentInconsistencyException;
+import com.bruno.studentsmanagement.services.exceptions.StudentModifiedException;
 import com.bruno.studentsmanagement.services.exceptions.StudentNotFoundException;
+import com.bruno.studentsmanagement.services.exceptions.UnknownFieldException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static com.bruno.studentsmanagement.utils.DateConverterUtil.convertDate;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -25,18 +38,39 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 public class StudentServiceTest {
 
+    static final String EMAIL_TAKEN =
+            "Unique index or primary key violation: \"PUBLIC.UK_STUDENT_EMAIL_INDEX_F ON PUBLIC.TB_STUDENT(EMAIL)\"";
+
     private Student givenStudent = new Student(
             1L, "Pedro Álvares Cabral",
-            convertDate("01-01-1467"),
+            convertDate("1467-01-01"),
             "pedroac@gmail.com",
             "(11) 98741-3652",
-            0
+            0, 0L
     );
     private StudentDTO expectedStudent = new StudentDTO(givenStudent);
 
     @Mock
     private StudentRepository studentRepository;
 
+    @Mock
+    private StudentJdbcRepository studentJdbcRepository;
+
+    @Mock
+    private StudentCache studentCache;
+
+    @Spy
+    private AttendanceCounter attendanceCounter = new AttendanceCounter();
+
+    @Mock
+    private NameSearchIndex nameSearchIndex;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private EmailIndex emailIndex = new EmailIndex(1000, 0.01);
+
     @InjectMocks
     private StudentService studentService;
 
@@ -54,27 +88,73 @@ public class StudentServiceTest {
 
     @Test
     void whenCreatingANewStudentAnEmailAccountIsAlreadyRegisteredThenThrowAnException() {
-        when(studentRepository.findByEmail(givenStudent.getEmail())).thenReturn(Optional.of(givenStudent));
+        when(studentRepository.save(givenStudent)).thenThrow(new DataIntegrityViolationException(EMAIL_TAKEN));
         assertThrows(EmailAlreadyRegisteredException.class, () -> studentService.save(expectedStudent));
     }
 
     @Test
-    void whenFindAllMethodIsCalledThenReturnAListOfStudents() {
-        when(studentRepository.findAll()).thenReturn(Collections.singletonList(givenStudent));
-        List<StudentDTO> list = studentService.findAll();
-        assertThat(list.get(0), is(equalTo(expectedStudent)));
+    void whenFindAllMethodIsCalledThenReturnAPageOfStudents() {
+        when(studentRepository.findDTOByIdGreaterThan(0L, PageRequest.of(0, StudentService.DEFAULT_PAGE_SIZE + 1)))
+                .thenReturn(Collections.singletonList(new StudentDTO(givenStudent)));
+        CursorPageDTO<StudentDTO> page = studentService.findAll(null, null);
+        assertThat(page.getContent().get(0), is(equalTo(expectedStudent)));
+        assertThat(page.getNextCursor(), is(nullValue()));
+    }
+
+    @Test
+    void whenFindAllMethodIsCalledWithMoreStudentsThanTheLimitThenReturnTheNextCursor() {
+        Student nextStudent = new Student(
+                2L, "Vasco da Gama",
+                convertDate("1469-01-01"),
+                "vascogama@gmail.com",
+                "(11) 98741-3653",
+                0, 0L
+        );
+        when(studentRepository.findDTOByIdGreaterThan(0L, PageRequest.of(0, 2)))
+                .thenReturn(Arrays.asList(new StudentDTO(givenStudent), new StudentDTO(nextStudent)));
+        CursorPageDTO<StudentDTO> page = studentService.findAll(0L, 1);
+        assertThat(page.getContent(), contains(expectedStudent));
+        assertThat(page.getNextCursor(), is(equalTo(givenStudent.getId())));
+    }
+
+    @Test
+    void whenFindAllMethodIsCalledThenReturnAnEmptyPageOfStudents(){
+        when(studentRepository.findDTOByIdGreaterThan(givenStudent.getId(), PageRequest.of(0, StudentService.MAX_PAGE_SIZE + 1)))
+                .thenReturn(Collections.emptyList());
+        CursorPageDTO<StudentDTO> page = studentService.findAll(givenStudent.getId(), Integer.MAX_VALUE);
+        assertThat(page.getContent(), is(empty()));
+        assertThat(page.getNextCursor(), is(nullValue()));
+    }
+
+    @Test
+    void whenFindAllMethodIsCalledWithFieldsThenOnlyTheseFieldsAndTheIdAreSelected() {
+        Map<String, Object> student = Map.of("id", givenStudent.getId(), "name", givenStudent.getName());
+        Map<String, Object> nextStudent = Map.of("id", 2L, "name", "Vasco da Gama");
+        when(studentRepository.findFieldsByIdGreaterThan(Arrays.asList("id", "name", "email"), 0L, 2))
+                .thenReturn(Arrays.asList(student, nextStudent));
+        CursorPageDTO<Map<String, Object>> page = studentService.findAll(0L, 1, " email,name ");
+        assertThat(page.getContent(), contains(student));
+        assertThat(page.getNextCursor(), is(equalTo(givenStudent.getId())));
     }
 
     @Test
-    void whenFindAllMethodIsCalledThenReturnAnEmptyListOfStudents(){
-        when(studentRepository.findAll()).thenReturn(Collections.emptyList());
-        List<StudentDTO> list = studentService.findAll();
-        assertThat(list.size(), is(equalTo(0)));
+    void whenFindAllMethodIsCalledWithAnUnknownFieldThenThrowUnknownFieldException() {
+        assertThrows(UnknownFieldException.class, () -> studentService.findAll(null, null, "name,password"));
+        verify(studentRepository, never()).findFieldsByIdGreaterThan(any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void whenStreamAllMethodIsCalledThenEveryStudentIsHandedToTheConsumerAndDetached() {
+        when(studentRepository.streamAll()).thenReturn(Stream.of(givenStudent));
+        List<StudentDTO> list = new ArrayList<>();
+        studentService.streamAll(list::add);
+        assertThat(list, contains(expectedStudent));
+        verify(entityManager, times(1)).detach(givenStudent);
     }
 
     @Test
     void whenFindByIdIsCalledWithARegisteredIdThenReturnTheStudent() {
-        when(studentRepository.findById(givenStudent.getId())).thenReturn(Optional.of(givenStudent));
+        when(studentRepository.findDTOById(givenStudent.getId())).thenReturn(Optional.of(new StudentDTO(givenStudent)));
         StudentDTO studentDTO = studentService.findById(givenStudent.getId());
         assertThat(studentDTO.getId(), is(equalTo(expectedStudent.getId())));
         assertThat(studentDTO.getName(), is(equalTo(expectedStudent.getName())));
@@ -84,15 +164,32 @@ public class StudentServiceTest {
         assertThat(studentDTO.getAttendance(), is(equalTo(expectedStudent.getAttendance())));
     }
 
+    @Test
+    void whenFindByIdIsCalledWithACachedIdThenTheRepositoryIsNotQueried() {
+        when(studentCache.getById(givenStudent.getId())).thenReturn(Optional.of(expectedStudent));
+        StudentDTO studentDTO = studentService.findById(givenStudent.getId());
+        assertThat(studentDTO, is(equalTo(expectedStudent)));
+        verify(studentRepository, never()).findDTOById(givenStudent.getId());
+    }
+
     @Test
     void whenFindByIdIsCalledWithAnUnregisteredIdThenThrowAnException() {
-        when(studentRepository.findById(givenStudent.getId())).thenReturn(Optional.empty());
+        when(studentRepository.findDTOById(givenStudent.getId())).thenReturn(Optional.empty());
         assertThrows(StudentNotFoundException.class, () -> studentService.findById(givenStudent.getId()));
     }
 
+    @Test
+    void whenAStudentIsNotFoundThenTheExceptionCarriesNoStackTrace() {
+        when(studentRepository.findDTOById(givenStudent.getId())).thenReturn(Optional.empty());
+        StudentNotFoundException exception =
+                assertThrows(StudentNotFoundException.class, () -> studentService.findById(givenStudent.getId()));
+        assertThat(exception.getStackTrace(), is(emptyArray()));
+        assertThat(exception.getMessage(), is(equalTo("There is no student registered with this ID: " + givenStudent.getId())));
+    }
+
     @Test
     void whenFindByEmailIsCalledWithARegisteredEmailThenReturnTheStudent() {
-        when(studentRepository.findByEmail(givenStudent.getEmail())).thenReturn(Optional.of(givenStudent));
+        when(studentRepository.findDTOByEmail(givenStudent.getEmail())).thenReturn(Optional.of(new StudentDTO(givenStudent)));
         StudentDTO studentDTO = studentService.findByEmail(givenStudent.getEmail());
         assertThat(studentDTO.getId(), is(equalTo(expectedStudent.getId())));
         assertThat(studentDTO.getName(), is(equalTo(expectedStudent.getName())));
@@ -102,90 +199,147 @@ public class StudentServiceTest {
         assertThat(studentDTO.getAttendance(), is(equalTo(expectedStudent.getAttendance())));
     }
 
+    @Test
+    void whenFindByEmailIsCalledWithARegisteredEmailThenTheStudentIsCached() {
+        when(studentRepository.findDTOByEmail(givenStudent.getEmail())).thenReturn(Optional.of(new StudentDTO(givenStudent)));
+        studentService.findByEmail(givenStudent.getEmail());
+        verify(studentCache, times(1)).putIfUnchanged(expectedStudent, 0L);
+    }
+
     @Test
     void whenFindByEmailIsCalledWithAnUnregisteredEmailThenThrowAnException() {
-        when(studentRepository.findByEmail(givenStudent.getEmail())).thenReturn(Optional.empty());
+        when(studentRepository.findDTOByEmail(givenStudent.getEmail())).thenReturn(Optional.empty());
         assertThrows(StudentNotFoundException.class, () -> studentService.findByEmail(givenStudent.getEmail()));
     }
 
     @Test
     void whenDeleteByIdMethodIsCalledWithARegisteredIdThenTheStudentMustBeExcluded() {
-        when(studentRepository.findById(givenStudent.getId())).thenReturn(Optional.of(givenStudent));
-        doNothing().when(studentRepository).deleteById(givenStudent.getId());
+        when(studentRepository.deleteStudentById(givenStudent.getId())).thenReturn(1);
         studentService.deleteById(givenStudent.getId());
-        verify(studentRepository, times(1)).findById(givenStudent.getId());
-        verify(studentRepository, times(1)).deleteById(givenStudent.getId());
+        verify(studentRepository, never()).findById(givenStudent.getId());
+        verify(studentCache, times(1)).evict(givenStudent.getId());
+        verify(nameSearchIndex, times(1)).remove(givenStudent.getId());
     }
 
     @Test
     void whenDeleteByIdMethodIsCalledWithAnUnregisteredIdThenThrowAnException() {
-        when(studentRepository.findById(givenStudent.getId())).thenReturn(Optional.empty());
+        when(studentRepository.deleteStudentById(givenStudent.getId())).thenReturn(0);
         assertThrows(StudentNotFoundException.class, () -> studentService.deleteById(givenStudent.getId()));
     }
 
     @Test
     void whenDeleteByEmailMethodIsCalledWithARegisteredEmailThenTheStudentMustBeExcluded() {
-        when(studentRepository.findByEmail(givenStudent.getEmail())).thenReturn(Optional.of(givenStudent));
-        doNothing().when(studentRepository).deleteByEmail(givenStudent.getEmail());
+        when(studentCache.getByEmail(givenStudent.getEmail())).thenReturn(Optional.of(expectedStudent));
+        when(studentRepository.deleteByEmail(givenStudent.getEmail())).thenReturn(1);
         studentService.deleteByEmail(givenStudent.getEmail());
-        verify(studentRepository, times(1)).findByEmail(givenStudent.getEmail());
-        verify(studentRepository, times(1)).deleteByEmail(givenStudent.getEmail());
+        verify(studentRepository, never()).findByEmail(givenStudent.getEmail());
+        verify(studentCache, times(1)).evictByEmail(givenStudent.getEmail());
+        verify(nameSearchIndex, times(1)).remove(givenStudent.getId());
     }
 
     @Test
     void whenDeleteByEmailMethodIsCalledWithAnUnregisteredEmailThenThrowAnException() {
-        when(studentRepository.findByEmail(givenStudent.getEmail())).thenReturn(Optional.empty());
+        when(studentRepository.deleteByEmail(givenStudent.getEmail())).thenReturn(0);
         assertThrows(StudentNotFoundException.class, () -> studentService.deleteByEmail(givenStudent.getEmail()));
     }
 
     @Test
     void whenUpdateByIdMethodIsCalledWithARegisteredIdThenDataStudentMustBeUpdated() {
-        when(studentRepository.findById(givenStudent.getId())).thenReturn(Optional.of(givenStudent));
-        when(studentRepository.save(givenStudent)).thenReturn(givenStudent);
+        when(studentJdbcRepository.update(expectedStudent, false)).thenReturn(Optional.of(stored(5, 1L)));
         StudentDTO updatedStudent = studentService.updateById(givenStudent.getId(), expectedStudent);
         assertThat(updatedStudent.getId(), is(equalTo(expectedStudent.getId())));
         assertThat(updatedStudent.getName(), is(equalTo(expectedStudent.getName())));
         assertThat(updatedStudent.getBirthDate(), is(equalTo(expectedStudent.getBirthDate())));
         assertThat(updatedStudent.getPhone(), is(equalTo(expectedStudent.getPhone())));
-        assertThat(updatedStudent.getAttendance(), is(equalTo(expectedStudent.getAttendance())));
+        assertThat(updatedStudent.getAttendance(), is(equalTo(5)));
+        assertThat(updatedStudent.getVersion(), is(equalTo(1L)));
+        verify(studentRepository, never()).findById(givenStudent.getId());
+        verify(studentCache, never()).getById(givenStudent.getId());
+    }
+
+    @Test
+    void whenUpdateByIdMethodIsCalledWithoutAttendanceThenTheStoredAttendanceIsKept() {
+        StudentDTO studentDTO = new StudentDTO(givenStudent);
+        studentDTO.setAttendance(null);
+        when(studentJdbcRepository.update(studentDTO, false)).thenReturn(Optional.of(stored(7, 3L)));
+        StudentDTO updatedStudent = studentService.updateById(givenStudent.getId(), studentDTO);
+        assertThat(updatedStudent.getAttendance(), is(equalTo(7)));
+        assertThat(updatedStudent.getVersion(), is(equalTo(3L)));
+        verify(studentRepository, never()).findById(givenStudent.getId());
     }
 
     @Test
     void whenUpdateByIdMethodIsCalledWithAnUnregisteredIdThenThrowException() {
-        when(studentRepository.findById(givenStudent.getId())).thenReturn(Optional.empty());
+        when(studentJdbcRepository.update(expectedStudent, false)).thenReturn(Optional.empty());
         assertThrows(StudentNotFoundException.class, () -> studentService.updateById(givenStudent.getId(), expectedStudent));
     }
 
+    @Test
+    void whenUpdateByIdMethodIsCalledWithAnEmailOfAnotherStudentThenThrowAnException() {
+        when(studentJdbcRepository.update(expectedStudent, false)).thenThrow(new DataIntegrityViolationException(EMAIL_TAKEN));
+        assertThrows(EmailAlreadyRegisteredException.class, () -> studentService.updateById(givenStudent.getId(), expectedStudent));
+    }
+
+    @Test
+    void whenUpdateByIdMethodViolatesAnotherConstraintThenTheViolationIsRethrown() {
+        when(studentJdbcRepository.update(expectedStudent, false))
+                .thenThrow(new DataIntegrityViolationException("NULL not allowed for column \"NAME\""));
+        assertThrows(DataIntegrityViolationException.class, () -> studentService.updateById(givenStudent.getId(), expectedStudent));
+    }
+
     @Test
     void whenUpdateByEmailMethodIsCalledWithARegisteredEmailThenDataStudentMustBeUpdated() {
-        when(studentRepository.findByEmail(givenStudent.getEmail())).thenReturn(Optional.of(givenStudent));
-        when(studentRepository.save(givenStudent)).thenReturn(givenStudent);
-        StudentDTO updatedStudent = studentService.updateByEmail(expectedStudent);
+        StudentDTO studentDTO = new StudentDTO(givenStudent);
+        studentDTO.setId(null);
+        when(studentJdbcRepository.update(studentDTO, true)).thenReturn(Optional.of(stored(5, 1L)));
+        StudentDTO updatedStudent = studentService.updateByEmail(studentDTO);
         assertThat(updatedStudent.getId(), is(equalTo(expectedStudent.getId())));
         assertThat(updatedStudent.getName(), is(equalTo(expectedStudent.getName())));
         assertThat(updatedStudent.getBirthDate(), is(equalTo(expectedStudent.getBirthDate())));
         assertThat(updatedStudent.getEmail(), is(equalTo(expectedStudent.getEmail())));
         assertThat(updatedStudent.getPhone(), is(equalTo(expectedStudent.getPhone())));
-        assertThat(updatedStudent.getAttendance(), is(equalTo(expectedStudent.getAttendance())));
+        assertThat(updatedStudent.getAttendance(), is(equalTo(5)));
+        assertThat(updatedStudent.getVersion(), is(equalTo(1L)));
+        verify(studentRepository, never()).findByEmail(givenStudent.getEmail());
     }
 
     @Test
     void whenUpdateByEmailMethodIsCalledWithAnUnregisteredEmailThenThrowException() {
-        when(studentRepository.findByEmail(givenStudent.getEmail())).thenReturn(Optional.empty());
+        when(studentJdbcRepository.update(any(), eq(true))).thenReturn(Optional.empty());
         assertThrows(StudentNotFoundException.class, () -> studentService.updateByEmail(expectedStudent));
     }
 
     @Test
     void whenUpdateEmailMethodIsCalledWithRegisteredIdThenUpdateStudentEmail() {
-        when(studentRepository.findById(givenStudent.getId())).thenReturn(Optional.of(givenStudent));
-        when(studentRepository.save(givenStudent)).thenReturn(givenStudent);
+        String newEmail = "cabral@gmail.com";
+        StudentDTO storedStudent = stored(0, 1L);
+        storedStudent.setEmail(newEmail);
+        when(studentJdbcRepository.updateEmail(givenStudent.getId(), givenStudent.getEmail(), newEmail, 0L))
+                .thenReturn(Optional.of(storedStudent));
         StudentDTO updatedStudent = studentService.updateEmail(
                 givenStudent.getId(),
                 givenStudent.getEmail(),
-                expectedStudent.getEmail()
+                newEmail,
+                0L
         );
         assertThat(updatedStudent.getId(), is(equalTo(expectedStudent.getId())));
-        assertThat(updatedStudent.getEmail(), is(equalTo(expectedStudent.getEmail())));
+        assertThat(updatedStudent.getEmail(), is(equalTo(newEmail)));
+        assertThat(updatedStudent.getVersion(), is(equalTo(1L)));
+        verify(studentRepository, never()).findById(givenStudent.getId());
+    }
+
+    @Test
+    void whenUpdateEmailMethodIsCalledWithoutAVersionThenTheStoredVersionIsReturned() {
+        String newEmail = "cabral@gmail.com";
+        StudentDTO storedStudent = stored(2, 6L);
+        storedStudent.setEmail(newEmail);
+        when(studentJdbcRepository.updateEmail(givenStudent.getId(), givenStudent.getEmail(), newEmail, null))
+                .thenReturn(Optional.of(storedStudent));
+        StudentDTO updatedStudent = studentService.updateEmail(givenStudent.getId(), givenStudent.getEmail(), newEmail, null);
+        assertThat(updatedStudent.getVersion(), is(equalTo(6L)));
+        assertThat(updatedStudent.getAttendance(), is(equalTo(2)));
+        verify(studentCache, never()).getById(givenStudent.getId());
+        verify(studentCache, times(1)).put(storedStudent);
     }
 
     @Test
@@ -195,39 +349,100 @@ public class StudentServiceTest {
                 () -> studentService.updateEmail(
                         givenStudent.getId(),
                         givenStudent.getEmail(),
-                        expectedStudent.getEmail()
+                        expectedStudent.getEmail(),
+                        null
                 )
         );
     }
 
     @Test
-    void whenIncreaseAttendanceMethodIsCalledWithARegisteredIdThenIncreaseStudentAttendance() {
+    void whenUpdateEmailMethodIsCalledWithAnotherStudentEmailThenThrowAnInconsistencyException() {
         when(studentRepository.findById(givenStudent.getId())).thenReturn(Optional.of(givenStudent));
-        when(studentRepository.save(givenStudent)).thenReturn(givenStudent);
+        assertThrows(StudentInconsistencyException.class,
+                () -> studentService.updateEmail(givenStudent.getId(), "other@gmail.com", expectedStudent.getEmail(), 0L)
+        );
+    }
+
+    @Test
+    void whenUpdateEmailMethodIsCalledWithAStaleVersionThenThrowStudentModifiedException() {
+        when(studentRepository.findById(givenStudent.getId())).thenReturn(Optional.of(givenStudent));
+        assertThrows(StudentModifiedException.class,
+                () -> studentService.updateEmail(givenStudent.getId(), givenStudent.getEmail(), "cabral@gmail.com", 3L)
+        );
+    }
+
+    @Test
+    void whenUpdateByIdMethodIsCalledWithAStaleVersionThenThrowStudentModifiedException() {
+        when(studentJdbcRepository.update(expectedStudent, false)).thenReturn(Optional.empty());
+        when(studentRepository.existsById(givenStudent.getId())).thenReturn(true);
+        assertThrows(StudentModifiedException.class, () -> studentService.updateById(givenStudent.getId(), expectedStudent));
+    }
+
+    @Test
+    void whenIncreaseAttendanceMethodIsCalledWithARegisteredIdThenIncreaseStudentAttendance() {
+        when(studentRepository.findDTOById(givenStudent.getId())).thenReturn(Optional.of(new StudentDTO(givenStudent)));
         StudentDTO updatedStudent = studentService.increaseAttendance(givenStudent.getId());
         assertThat(updatedStudent.getId(), is(equalTo(expectedStudent.getId())));
         assertThat(updatedStudent.getAttendance(), is(equalTo(expectedStudent.getAttendance() + 1)));
+        verify(studentRepository, never()).save(any());
+    }
+
+    @Test
+    void whenFindByIdIsCalledWithPendingAttendanceThenItIsMergedIntoTheStudent() {
+        when(studentRepository.findDTOById(givenStudent.getId())).thenReturn(Optional.of(new StudentDTO(givenStudent)));
+        doReturn(3L).when(attendanceCounter).pending(givenStudent.getId());
+        StudentDTO studentDTO = studentService.findById(givenStudent.getId());
+        assertThat(studentDTO.getAttendance(), is(equalTo(expectedStudent.getAttendance() + 3)));
     }
 
     @Test
     void whenIncreaseAttendanceMethodIsCalledWithAnUnregisteredIdThenThrowException() {
-        when(studentRepository.findById(givenStudent.getId())).thenReturn(Optional.empty());
+        when(studentRepository.findDTOById(givenStudent.getId())).thenReturn(Optional.empty());
         assertThrows(StudentNotFoundException.class, () -> studentService.increaseAttendance(givenStudent.getId()));
+        assertThat(attendanceCounter.pending(givenStudent.getId()), is(equalTo(0L)));
+    }
+
+    @Test
+    void whenAnUpdateSetsTheAttendanceThenThePendingIncrementsAreDropped() {
+        attendanceCounter.increment(givenStudent.getId());
+        when(studentJdbcRepository.update(expectedStudent, false)).thenReturn(Optional.of(stored(0, 1L)));
+        StudentDTO updatedStudent = studentService.updateById(givenStudent.getId(), expectedStudent);
+        assertThat(updatedStudent.getAttendance(), is(equalTo(0)));
+        assertThat(attendanceCounter.pending(givenStudent.getId()), is(equalTo(0L)));
     }
 
     @Test
     void whenFindByNameMethodIsCalledThenReturnAListOfStudents(){
-        when(studentRepository.findByNameContainingIgnoreCase("part_of_a_name_case_insensitive"))
-                .thenReturn(Collections.nCopies(5, givenStudent));
-        List<StudentDTO> list = studentService.findByNameContainingIgnoreCase("part_of_a_name_case_insensitive");
+        when(studentRepository.findDTOByNameContainingIgnoreCase("part_of_a_name_case_insensitive", PageRequest.of(0, 20)))
+                .thenReturn(Collections.nCopies(5, expectedStudent));
+        List<StudentDTO> list = studentService.findByNameContainingIgnoreCase("part_of_a_name_case_insensitive", PageRequest.of(0, 20));
         assertThat(list, is(not(empty())));
     }
 
     @Test
     void whenFindByNameMethodIsCalledThenReturnAnEmptyList() {
-        when(studentRepository.findByNameContainingIgnoreCase("part_of_a_name_case_insensitive"))
+        when(studentRepository.findDTOByNameContainingIgnoreCase("part_of_a_name_case_insensitive", PageRequest.of(0, 20)))
                 .thenReturn(Collections.emptyList());
-        List<StudentDTO> list = studentService.findByNameContainingIgnoreCase("part_of_a_name_case_insensitive");
+        List<StudentDTO> list = studentService.findByNameContainingIgnoreCase("part_of_a_name_case_insensitive", PageRequest.of(0, 20));
         assertThat(list, is(empty()));
     }
+
+    @Test
+    void whenFindByNameMethodIsCalledWithAReadyIndexThenOnlyTheMatchingIdsAreLoaded() {
+        when(nameSearchIndex.isReady()).thenReturn(true);
+        when(nameSearchIndex.search("cabral", 0, StudentService.MAX_SEARCH_SIZE)).thenReturn(Arrays.asList(1L, 2L));
+        when(studentRepository.findDTOByIdIn(Arrays.asList(1L, 2L))).thenReturn(Collections.singletonList(expectedStudent));
+        List<StudentDTO> list = studentService.findByNameContainingIgnoreCase("cabral", PageRequest.of(0, 1000));
+        assertThat(list, contains(expectedStudent));
+        verify(nameSearchIndex, times(1)).remove(2L);
+        verify(studentRepository, never()).findDTOByNameContainingIgnoreCase(anyString(), any());
+    }
+
+    /** The given student as the update statement returns it, with the stored attendance and version. */
+    private StudentDTO stored(int attendance, long version){
+        StudentDTO studentDTO = new StudentDTO(givenStudent);
+        studentDTO.setAttendance(attendance);
+        studentDTO.setVersion(version);
+        return studentDTO;
+    }
 }
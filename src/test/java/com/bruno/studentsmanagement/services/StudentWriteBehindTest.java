@@ -0,0 +1,154 @@
+package com.bruno.studentsmanagement.services;
+
+import com.bruno.studentsmanagement.dto.StudentDTO;
+import com.bruno.studentsmanagement.dto.WriteStatusDTO;
+import com.bruno.studentsmanagement.dto.WriteStatusDTO.Operation;
+import com.bruno.studentsmanagement.dto.WriteStatusDTO.Status;
+import com.bruno.studentsmanagement.repositories.StudentJdbcRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.bruno.studentsmanagement.utils.DateConverterUtil.convertDate;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StudentWriteBehindTest {
+
+    private StudentDTO firstStudent = new StudentDTO(
+            null, "Pedro Álvares Cabral",
+            convertDate("1467-01-01"),
+            "pedroac@gmail.com",
+            "(11) 98741-3652",
+            0, null
+    );
+
+    private StudentDTO secondStudent = new StudentDTO(
+            null, "Vasco da Gama",
+            convertDate("1469-01-01"),
+            "vascogama@gmail.com",
+            "(11) 98741-3653",
+            0, null
+    );
+
+    @Mock
+    private StudentJdbcRepository studentJdbcRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private StudentCache studentCache;
+
+    @Mock
+    private NameSearchIndex nameSearchIndex;
+
+    @Spy
+    private EmailIndex emailIndex = new EmailIndex(1000, 0.01);
+
+    @Spy
+    private AttendanceCounter attendanceCounter = new AttendanceCounter();
+
+    @InjectMocks
+    private StudentWriteBehind studentWriteBehind = new StudentWriteBehind(2, 500, Duration.ofMinutes(1));
+
+    @Test
+    void whenWritesAreDrainedThenTheyAreInsertedInOneBatchAndReportedDone() {
+        givenTransactions();
+        when(studentJdbcRepository.findIdsByEmail(Set.of(firstStudent.getEmail(), secondStudent.getEmail())))
+                .thenReturn(Map.of(firstStudent.getEmail(), 1L, secondStudent.getEmail(), 2L));
+        WriteStatusDTO first = studentWriteBehind.enqueue(Operation.SAVE, firstStudent);
+        WriteStatusDTO second = studentWriteBehind.enqueue(Operation.SAVE, secondStudent);
+        assertThat(studentWriteBehind.status(first.getId()).map(WriteStatusDTO::getStatus).orElseThrow(), is(Status.PENDING));
+        assertThat(studentWriteBehind.drainBatch(), is(equalTo(2)));
+        verify(studentJdbcRepository, times(1)).insertAll(Arrays.asList(firstStudent, secondStudent), 500);
+        assertThat(studentWriteBehind.status(first.getId()).map(WriteStatusDTO::getStudentId).orElseThrow(), is(equalTo(1L)));
+        assertThat(studentWriteBehind.status(second.getId()).map(WriteStatusDTO::getStatus).orElseThrow(), is(Status.DONE));
+        assertThat(studentWriteBehind.depth(), is(equalTo(0)));
+    }
+
+    @Test
+    void whenTheBatchFailsThenOnlyTheOffendingWriteFails() {
+        givenTransactions();
+        doThrow(new DataIntegrityViolationException(StudentServiceTest.EMAIL_TAKEN))
+                .when(studentJdbcRepository).insertAll(Arrays.asList(firstStudent, secondStudent), 500);
+        lenient().doThrow(new DataIntegrityViolationException(StudentServiceTest.EMAIL_TAKEN))
+                .when(studentJdbcRepository).insertAll(Collections.singletonList(secondStudent), 500);
+        when(studentJdbcRepository.findIdsByEmail(Set.of(firstStudent.getEmail())))
+                .thenReturn(Map.of(firstStudent.getEmail(), 1L));
+        WriteStatusDTO first = studentWriteBehind.enqueue(Operation.SAVE, firstStudent);
+        WriteStatusDTO second = studentWriteBehind.enqueue(Operation.SAVE, secondStudent);
+        studentWriteBehind.drainBatch();
+        assertThat(studentWriteBehind.status(first.getId()).map(WriteStatusDTO::getStatus).orElseThrow(), is(Status.DONE));
+        WriteStatusDTO failed = studentWriteBehind.status(second.getId()).orElseThrow();
+        assertThat(failed.getStatus(), is(Status.FAILED));
+        assertThat(failed.getMessage(), containsString(secondStudent.getEmail()));
+    }
+
+    @Test
+    void whenAnUpdateMatchesNoStudentThenItFails() {
+        givenTransactions();
+        secondStudent.setId(2L);
+        when(studentJdbcRepository.updateAll(List.of(secondStudent), false, 500)).thenReturn(new int[]{0});
+        WriteStatusDTO status = studentWriteBehind.enqueue(Operation.UPDATE_BY_ID, secondStudent);
+        studentWriteBehind.drainBatch();
+        assertThat(studentWriteBehind.status(status.getId()).map(WriteStatusDTO::getStatus).orElseThrow(), is(Status.FAILED));
+        verify(studentJdbcRepository, never()).findIdsByEmail(any());
+    }
+
+    @Test
+    void whenWritesOfDifferentOperationsAreDrainedThenTheyAreAppliedInTheirOrder() {
+        givenTransactions();
+        firstStudent.setId(1L);
+        when(studentJdbcRepository.updateAll(List.of(firstStudent), false, 500)).thenReturn(new int[]{1});
+        when(studentJdbcRepository.findIdsByEmail(Set.of(firstStudent.getEmail(), secondStudent.getEmail())))
+                .thenReturn(Map.of(firstStudent.getEmail(), 1L, secondStudent.getEmail(), 2L));
+        studentWriteBehind.enqueue(Operation.UPDATE_BY_ID, firstStudent);
+        studentWriteBehind.enqueue(Operation.SAVE, secondStudent);
+        studentWriteBehind.drainBatch();
+        InOrder inOrder = inOrder(studentJdbcRepository);
+        inOrder.verify(studentJdbcRepository).updateAll(List.of(firstStudent), false, 500);
+        inOrder.verify(studentJdbcRepository).insertAll(List.of(secondStudent), 500);
+    }
+
+    @Test
+    void whenDrainingThrowsAnErrorThenTheWritesOfTheBatchFail() {
+        when(transactionTemplate.execute(any())).thenThrow(new StackOverflowError());
+        WriteStatusDTO status = studentWriteBehind.enqueue(Operation.SAVE, firstStudent);
+        assertThrows(StackOverflowError.class, () -> studentWriteBehind.drainBatch());
+        assertThat(studentWriteBehind.status(status.getId()).map(WriteStatusDTO::getStatus).orElseThrow(), is(Status.FAILED));
+        assertThat(studentWriteBehind.depth(), is(equalTo(0)));
+    }
+
+    @Test
+    void whenTheQueueIsFullThenFurtherWritesAreRejected() {
+        studentWriteBehind.enqueue(Operation.SAVE, firstStudent);
+        studentWriteBehind.enqueue(Operation.SAVE, secondStudent);
+        assertThrows(RejectedExecutionException.class, () -> studentWriteBehind.enqueue(Operation.SAVE, firstStudent));
+        assertThat(studentWriteBehind.depth(), is(equalTo(2)));
+    }
+
+    private void givenTransactions() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+}
@@ -0,0 +1,80 @@
+package com.bruno.studentsmanagement.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SingleFlightTest {
+
+    private SingleFlight<Long, String> singleFlight = new SingleFlight<>("test");
+
+    /** The leader blocks until the follower has joined, so both need a thread whatever the CPU count. */
+    private ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void whenIdenticalCallsOverlapThenOnlyTheFirstOneRuns() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute(1L, () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "Pedro Álvares Cabral";
+        }), executor);
+        assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> singleFlight.execute(1L, () -> {
+            calls.incrementAndGet();
+            return "Vasco da Gama";
+        }), executor);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while(singleFlight.coalesced() == 0 && System.nanoTime() < deadline) Thread.sleep(1);
+        release.countDown();
+        assertThat(singleFlight.coalesced(), is(equalTo(1L)));
+        assertThat(leader.get(5, TimeUnit.SECONDS), is(equalTo("Pedro Álvares Cabral")));
+        assertThat(follower.get(5, TimeUnit.SECONDS), is(equalTo("Pedro Álvares Cabral")));
+        assertThat(calls.get(), is(equalTo(1)));
+        assertThat(singleFlight.inFlight(), is(equalTo(0)));
+    }
+
+    @Test
+    void whenACallCompletesThenTheNextIdenticalCallRunsAgain() {
+        singleFlight.execute(1L, () -> "Pedro Álvares Cabral");
+        String name = singleFlight.execute(1L, () -> "Vasco da Gama");
+        assertThat(name, is(equalTo("Vasco da Gama")));
+        assertThat(singleFlight.executed(), is(equalTo(2L)));
+        assertThat(singleFlight.coalesced(), is(equalTo(0L)));
+    }
+
+    @Test
+    void whenTheCallFailsThenTheExceptionIsThrownAndNothingStaysInFlight() {
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute(1L, () -> {
+            throw new IllegalStateException();
+        }));
+        assertThat(singleFlight.inFlight(), is(equalTo(0)));
+    }
+
+    private static void await(CountDownLatch latch){
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}